@@ -0,0 +1,107 @@
+package com.auth0.android.google.app;
+
+import com.auth0.android.benchmark.MicroBenchmark;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+public class FileNameIndexBenchmark {
+
+    private static final String[] WORDS = {"report", "invoice", "photo", "budget", "draft", "final", "meeting", "notes", "project",
+            "summary", "backup", "scan", "contract", "presentation", "holiday", "receipt", "design", "review", "plan", "copy"};
+    private static final String[] EXTENSIONS = {"pdf", "docx", "jpg", "png", "xlsx", "txt", "pptx", "zip"};
+    /**
+     * The time to render a frame at 60 fps.
+     */
+    private static final long FRAME_NANOS = TimeUnit.MILLISECONDS.toNanos(16);
+    /**
+     * What the user types, one keystroke at a time.
+     */
+    private static final String[] KEYSTROKES = {"r", "re", "rep", "repo", "report", "report ", "report 2", "report 20", "report 201", "report 2017 p"};
+
+    @Test
+    public void build10k() throws Exception {
+        build(10000);
+    }
+
+    @Test
+    public void build100k() throws Exception {
+        build(100000);
+    }
+
+    @Test
+    public void query10k() throws Exception {
+        query(10000);
+    }
+
+    @Test
+    public void query100k() throws Exception {
+        query(100000);
+    }
+
+    private static void build(int count) {
+        final List<String> names = createNames(count);
+        MicroBenchmark.run("FileNameIndex.add x " + count, 1, new MicroBenchmark.Operation() {
+            @Override
+            public Object run() {
+                final FileNameIndex index = new FileNameIndex();
+                for (int i = 0; i < names.size(); i++) {
+                    index.add(i, names.get(i), i % 10 == 0);
+                }
+                return index;
+            }
+        });
+    }
+
+    private static void query(int count) {
+        final List<String> names = createNames(count);
+        final FileNameIndex index = new FileNameIndex();
+        for (int i = 0; i < names.size(); i++) {
+            index.add(i, names.get(i), i % 10 == 0);
+        }
+        assertThat(index.query("report 2017 p"), is(notNullValue()));
+
+        final MicroBenchmark.Result result = MicroBenchmark.run("FileNameIndex.query keystroke @ " + count, KEYSTROKES.length, new MicroBenchmark.Operation() {
+            private int next;
+
+            @Override
+            public Object run() {
+                return index.query(KEYSTROKES[next++ % KEYSTROKES.length]);
+            }
+        });
+
+        assertThat(result.p99Nanos, is(lessThan((double) FRAME_NANOS)));
+    }
+
+    /**
+     * Creates names like "Budget review 2016 03.pdf", with a fixed seed so every run indexes the same names.
+     */
+    static List<String> createNames(int count) {
+        final Random random = new Random(42);
+        final List<String> names = new ArrayList<>(count);
+        final StringBuilder name = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            name.setLength(0);
+            final int words = 1 + random.nextInt(3);
+            for (int w = 0; w < words; w++) {
+                final String word = WORDS[random.nextInt(WORDS.length)];
+                name.append(w == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word).append(' ');
+            }
+            name.append(2010 + random.nextInt(8)).append(' ').append(random.nextInt(1000));
+            if (i % 10 != 0) {
+                name.append('.').append(EXTENSIONS[random.nextInt(EXTENSIONS.length)]);
+            }
+            names.add(name.toString());
+        }
+        return names;
+    }
+}
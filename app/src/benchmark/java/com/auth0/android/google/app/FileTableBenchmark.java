@@ -0,0 +1,174 @@
+package com.auth0.android.google.app;
+
+import com.auth0.android.benchmark.MicroBenchmark;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Compares the heap the app keeps for a listing with the FileTable in the store, against what it kept before:
+ * one entry object per file in the store, plus one formatted String per file in the list.
+ * Both models copy the ids and names the way the JSON parser hands them over, one new String per file,
+ * so the retained heap counts the Strings they keep.
+ */
+public class FileTableBenchmark {
+
+    private static final int COUNT = 100000;
+
+    @Test
+    public void heap100k() throws Exception {
+        final Listing listing = createListing(COUNT);
+
+        final long entriesBytes = retainedBytes(new Model() {
+            @Override
+            public Object build() {
+                return new EntriesAndRows(listing);
+            }
+        });
+        final long tableBytes = retainedBytes(new Model() {
+            @Override
+            public Object build() {
+                return createStore(listing);
+            }
+        });
+        System.out.println(String.format(Locale.US, "[benchmark] %-50s %,14d B  %,8.1f B/file", "Entries + formatted Strings retained @ " + COUNT, entriesBytes, (double) entriesBytes / COUNT));
+        System.out.println(String.format(Locale.US, "[benchmark] %-50s %,14d B  %,8.1f B/file", "Store FileTable retained @ " + COUNT, tableBytes, (double) tableBytes / COUNT));
+
+        assertThat(tableBytes, is(lessThan(entriesBytes * 2 / 3)));
+    }
+
+    @Test
+    public void build100k() throws Exception {
+        final Listing listing = createListing(COUNT);
+
+        final MicroBenchmark.Result entries = MicroBenchmark.run("Entries + formatted Strings build x " + COUNT, 1, new MicroBenchmark.Operation() {
+            @Override
+            public Object run() {
+                return new EntriesAndRows(listing);
+            }
+        });
+        final MicroBenchmark.Result table = MicroBenchmark.run("Store FileTable build x " + COUNT, 1, new MicroBenchmark.Operation() {
+            @Override
+            public Object run() {
+                return createStore(listing);
+            }
+        });
+
+        if (!Double.isNaN(entries.bytesPerOperation)) {
+            assertThat(table.bytesPerOperation, is(lessThan(entries.bytesPerOperation / 2)));
+        }
+    }
+
+    private static DriveMetadataStore createStore(Listing listing) {
+        final DriveMetadataStore store = new DriveMetadataStore(new java.io.File("unused"));
+        for (int i = 0; i < listing.size(); i++) {
+            store.add(new String(listing.ids[i]), listing.parseName(i), listing.sizes[i]);
+        }
+        return store;
+    }
+
+    /**
+     * The metadata of the files as the app kept it before the FileTable: the store entries by id, and the rows formatted upfront.
+     */
+    private static class EntriesAndRows {
+        final Map<String, Entry> entries = new LinkedHashMap<>();
+        final List<String> rows = new ArrayList<>();
+
+        EntriesAndRows(Listing listing) {
+            for (int i = 0; i < listing.size(); i++) {
+                final Entry entry = new Entry(new String(listing.ids[i]), listing.parseName(i), listing.sizes[i]);
+                entries.put(entry.id, entry);
+            }
+            for (Entry entry : entries.values()) {
+                if (entry.size != -1) {
+                    rows.add(String.format("[File] %s %s", entry.name, entry.size));
+                } else {
+                    rows.add(String.format("[Folder] %s", entry.name));
+                }
+            }
+        }
+    }
+
+    private static class Entry {
+        final String id;
+        final String name;
+        final long size;
+
+        Entry(String id, String name, long size) {
+            this.id = id;
+            this.name = name;
+            this.size = size;
+        }
+    }
+
+    /**
+     * The files of a listing, kept as characters so every model builds its own Strings.
+     */
+    private static class Listing {
+        final char[][] ids;
+        final char[][] names;
+        final long[] sizes;
+
+        Listing(int count) {
+            ids = new char[count][];
+            names = new char[count][];
+            sizes = new long[count];
+        }
+
+        int size() {
+            return sizes.length;
+        }
+
+        String parseName(int i) {
+            return new String(names[i]);
+        }
+    }
+
+    private static Listing createListing(int count) {
+        final List<String> names = FileNameIndexBenchmark.createNames(count);
+        final Random random = new Random(42);
+        final Listing listing = new Listing(count);
+        for (int i = 0; i < count; i++) {
+            listing.ids[i] = ("0B" + Long.toString(random.nextLong() & Long.MAX_VALUE, 36) + Integer.toString(i, 36)).toCharArray();
+            listing.names[i] = names.get(i).toCharArray();
+            listing.sizes[i] = i % 10 == 0 ? -1 : random.nextInt(10 * 1024 * 1024);
+        }
+        return listing;
+    }
+
+    private interface Model {
+        Object build();
+    }
+
+    /**
+     * @return the heap taken by the model once built, including the Strings it was built with.
+     */
+    private static long retainedBytes(Model model) throws InterruptedException {
+        final long before = usedHeap();
+        final Object built = model.build();
+        final long after = usedHeap();
+        if (built == null) {
+            throw new AssertionError();
+        }
+        return after - before;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
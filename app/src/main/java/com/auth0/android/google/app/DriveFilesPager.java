@@ -0,0 +1,99 @@
+package com.auth0.android.google.app;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.util.Log;
+
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.File;
+import com.google.api.services.drive.model.FileList;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Walks the Drive file listing one page at a time, following the nextPageToken of each response.
+ * The first page is small so it renders quickly. The following pages grow or shrink so that each request
+ * takes about {@link #TARGET_LATENCY_MS}.
+ * Not thread safe: request one page at a time.
+ */
+class DriveFilesPager {
+
+    private static final String TAG = DriveFilesPager.class.getSimpleName();
+    static final int FIRST_PAGE_SIZE = 50;
+    static final int MIN_PAGE_SIZE = 50;
+    /**
+     * The maximum page size accepted by the Drive API.
+     */
+    static final int MAX_PAGE_SIZE = 1000;
+    static final long TARGET_LATENCY_MS = 500;
+    private static final String FIELDS = "nextPageToken, files(id, name, size)";
+    private static final String QUERY = "trashed = false";
+
+    private final Drive service;
+    private String nextPageToken;
+    private boolean finished;
+    private int pageSize;
+
+    DriveFilesPager(@NonNull Drive service) {
+        this.service = service;
+        this.pageSize = FIRST_PAGE_SIZE;
+    }
+
+    /**
+     * @return whether there are more pages to request.
+     */
+    boolean hasNextPage() {
+        return !finished;
+    }
+
+    /**
+     * @return the number of files the next request will ask for.
+     */
+    int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Requests the next page of files. Blocks until the response arrives, so call it from a background thread.
+     *
+     * @return the files of the page, empty if there are no more pages.
+     * @throws IOException if the request fails. The same page can be requested again.
+     */
+    @NonNull
+    List<File> nextPage() throws IOException {
+        if (finished) {
+            return Collections.emptyList();
+        }
+        final long start = SystemClock.elapsedRealtime();
+        final FileList result = service.files().list()
+                .setPageSize(pageSize)
+                .setPageToken(nextPageToken)
+                .setQ(QUERY)
+                .setFields(FIELDS)
+                .execute();
+        adaptPageSize(SystemClock.elapsedRealtime() - start);
+        nextPageToken = result.getNextPageToken();
+        finished = nextPageToken == null;
+        final List<File> files = result.getFiles();
+        return files != null ? files : Collections.<File>emptyList();
+    }
+
+    /**
+     * Grows the page size when the last page took less than half the target latency, and shrinks it when it took longer than the target.
+     *
+     * @param latencyMs the time the last page took, in milliseconds.
+     */
+    void adaptPageSize(long latencyMs) {
+        final int previous = pageSize;
+        if (latencyMs < TARGET_LATENCY_MS / 2) {
+            pageSize = Math.min(MAX_PAGE_SIZE, pageSize * 2);
+        } else if (latencyMs > TARGET_LATENCY_MS) {
+            pageSize = Math.max(MIN_PAGE_SIZE, pageSize / 2);
+        }
+        if (pageSize != previous) {
+            Log.v(TAG, "Page of " + previous + " files took " + latencyMs + " ms. Next page size: " + pageSize);
+        }
+    }
+}
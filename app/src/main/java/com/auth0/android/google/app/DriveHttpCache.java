@@ -0,0 +1,93 @@
+package com.auth0.android.google.app;
+
+import android.content.Context;
+import android.net.http.HttpResponseCache;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Process wide HTTP response cache for the Drive requests, stored in the app cache directory.
+ * The Drive transport is backed by HttpURLConnection, which uses the installed cache: responses with an ETag
+ * are stored, and repeated requests are revalidated with If-None-Match so an unchanged listing costs a 304
+ * instead of the whole payload. The least recently used responses are evicted past {@link #MAX_SIZE_BYTES}.
+ */
+final class DriveHttpCache {
+
+    private static final String TAG = DriveHttpCache.class.getSimpleName();
+    private static final String DIRECTORY = "drive-http";
+    static final long MAX_SIZE_BYTES = 10 * 1024 * 1024;
+
+    private DriveHttpCache() {
+    }
+
+    /**
+     * Installs the cache, unless there's one installed already. Reads from disk, so call it from a background thread.
+     *
+     * @param context any context.
+     */
+    static synchronized void install(@NonNull Context context) {
+        if (HttpResponseCache.getInstalled() != null) {
+            return;
+        }
+        try {
+            HttpResponseCache.install(new File(context.getCacheDir(), DIRECTORY), MAX_SIZE_BYTES);
+        } catch (IOException e) {
+            Log.w(TAG, "Could not install the HTTP response cache. Requests won't be cached.", e);
+        }
+    }
+
+    /**
+     * Writes the pending cache changes to disk. Call it when the app goes to the background.
+     */
+    static void flush() {
+        final HttpResponseCache cache = HttpResponseCache.getInstalled();
+        if (cache != null) {
+            cache.flush();
+        }
+    }
+
+    /**
+     * @return the counters of the installed cache, or null if there's none.
+     */
+    @Nullable
+    static Stats getStats() {
+        final HttpResponseCache cache = HttpResponseCache.getInstalled();
+        if (cache == null) {
+            return null;
+        }
+        return new Stats(cache.getRequestCount(), cache.getNetworkCount(), cache.getHitCount(), cache.size());
+    }
+
+    static class Stats {
+        /**
+         * Responses served from the cache without a request.
+         */
+        final int hits;
+        /**
+         * Cached responses that were still valid according to the server, which answered with a 304.
+         */
+        final int revalidations;
+        /**
+         * Responses fully downloaded from the server.
+         */
+        final int misses;
+        final long sizeBytes;
+
+        Stats(int requestCount, int networkCount, int hitCount, long sizeBytes) {
+            // A revalidation counts both as a network request and as a hit.
+            this.hits = requestCount - networkCount;
+            this.revalidations = hitCount + networkCount - requestCount;
+            this.misses = requestCount - hitCount;
+            this.sizeBytes = sizeBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "hits: " + hits + ", revalidations: " + revalidations + ", misses: " + misses + ", size: " + sizeBytes + " bytes";
+        }
+    }
+}
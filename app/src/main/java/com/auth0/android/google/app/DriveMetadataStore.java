@@ -0,0 +1,228 @@
+package com.auth0.android.google.app;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import com.google.api.services.drive.model.File;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Local copy of the Drive file metadata of one account, persisted to a file.
+ * Once a full listing has been stored, the start page token of the Drive changes feed is kept with it,
+ * so later syncs only need to apply the changes made since then.
+ * <p>
+ * The files are kept in a {@link FileTable}, which the list displays through snapshots without copying it.
+ * Files without a size, like folders, are stored with a size of -1 and flagged as folders.
+ */
+class DriveMetadataStore {
+
+    private static final String TAG = DriveMetadataStore.class.getSimpleName();
+    private static final int FORMAT_VERSION = 1;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final java.io.File file;
+    private FileTable files;
+    private String startPageToken;
+
+    DriveMetadataStore(@NonNull java.io.File file) {
+        this.file = file;
+        this.files = new FileTable();
+    }
+
+    /**
+     * Names the file that keeps the metadata of the given account. The name is derived from a SHA-256 digest of the account name,
+     * so different accounts never share a file and the account name isn't written in the file system.
+     *
+     * @param accountName the name of the Google account.
+     * @return the name of the file, without any directory.
+     */
+    @NonNull
+    static String fileNameFor(@NonNull String accountName) {
+        final byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(accountName.getBytes(Charset.forName("UTF-8")));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java and Android runtime provides SHA-256.
+            throw new IllegalStateException(e);
+        }
+        final StringBuilder name = new StringBuilder("drive-");
+        for (byte b : digest) {
+            name.append(HEX_DIGITS[(b >> 4) & 0xf]).append(HEX_DIGITS[b & 0xf]);
+        }
+        return name.toString();
+    }
+
+    /**
+     * Reads the stored metadata from disk, replacing the one in memory. A missing or unreadable file leaves the store empty.
+     */
+    synchronized void load() {
+        files = new FileTable();
+        startPageToken = null;
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (in.readInt() != FORMAT_VERSION) {
+                Log.w(TAG, "Ignoring metadata stored with an old format");
+                return;
+            }
+            final String token = in.readBoolean() ? in.readUTF() : null;
+            final int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                final String id = in.readUTF();
+                final String name = in.readBoolean() ? in.readUTF() : null;
+                add(files, id, name, in.readLong());
+            }
+            startPageToken = token;
+        } catch (FileNotFoundException e) {
+            Log.v(TAG, "No metadata stored yet");
+        } catch (IOException e) {
+            Log.w(TAG, "Could not read the stored metadata", e);
+            files = new FileTable();
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    /**
+     * Writes the metadata to disk. The previous file is only replaced once the new one is completely written.
+     *
+     * @throws IOException if the file can't be written.
+     */
+    synchronized void save() throws IOException {
+        final java.io.File tmp = new java.io.File(file.getPath() + ".tmp");
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+            out.writeInt(FORMAT_VERSION);
+            out.writeBoolean(startPageToken != null);
+            if (startPageToken != null) {
+                out.writeUTF(startPageToken);
+            }
+            final FileTable.Snapshot snapshot = files.snapshot();
+            out.writeInt(snapshot.size());
+            for (int row = 0; row < snapshot.size(); row++) {
+                out.writeUTF(snapshot.getId(row));
+                final String name = snapshot.getName(row);
+                out.writeBoolean(name != null);
+                if (name != null) {
+                    out.writeUTF(name);
+                }
+                out.writeLong(snapshot.getSize(row));
+            }
+        } finally {
+            closeQuietly(out);
+        }
+        if (!tmp.renameTo(file)) {
+            throw new IOException("Could not replace " + file);
+        }
+    }
+
+    /**
+     * @return the token to request the changes since the last sync, or null if no full listing was stored yet.
+     */
+    @Nullable
+    synchronized String getStartPageToken() {
+        return startPageToken;
+    }
+
+    synchronized void setStartPageToken(@Nullable String startPageToken) {
+        this.startPageToken = startPageToken;
+    }
+
+    /**
+     * @return the stored files, in the order they were first added. Files stored later won't be part of it.
+     */
+    @NonNull
+    synchronized FileTable.Snapshot getFiles() {
+        return files.snapshot();
+    }
+
+    synchronized int size() {
+        return files.size();
+    }
+
+    /**
+     * Appends a file of the full listing.
+     *
+     * @param id   the Drive id of the file.
+     * @param name the name of the file.
+     * @param size the size in bytes, or -1 for folders and the files without a known size.
+     */
+    synchronized void add(@NonNull String id, @Nullable String name, long size) {
+        add(files, id, name, size);
+    }
+
+    /**
+     * Applies the changes reported by Drive. The files already stored are updated in place, the other ones are appended.
+     * The files are copied to a new table, so the snapshots taken before still have the previous files.
+     *
+     * @param changes the changed files by id, in the order they changed. A null file removes the stored one.
+     */
+    synchronized void update(@NonNull Map<String, File> changes) {
+        final Map<String, File> pending = new LinkedHashMap<>(changes);
+        final FileTable.Snapshot previous = files.snapshot();
+        final FileTable updated = new FileTable();
+        for (int row = 0; row < previous.size(); row++) {
+            final String id = previous.getId(row);
+            if (!pending.containsKey(id)) {
+                updated.add(id, previous.getName(row), previous.isFolder(row), previous.getSize(row));
+                continue;
+            }
+            final File changed = pending.remove(id);
+            if (changed != null) {
+                add(updated, id, changed.getName(), sizeOf(changed));
+            }
+        }
+        for (Map.Entry<String, File> change : pending.entrySet()) {
+            if (change.getValue() != null) {
+                add(updated, change.getKey(), change.getValue().getName(), sizeOf(change.getValue()));
+            }
+        }
+        files = updated;
+    }
+
+    /**
+     * Removes every file and the start page token, to store a new full listing.
+     */
+    synchronized void clear() {
+        // A new table, since the list may still be reading the rows of the previous one.
+        files = new FileTable();
+        startPageToken = null;
+    }
+
+    /**
+     * @return the size in bytes of the Drive file, or -1 if it has none.
+     */
+    static long sizeOf(@NonNull File file) {
+        final Long size = file.getSize();
+        return size != null ? size : -1;
+    }
+
+    private static void add(FileTable files, String id, String name, long size) {
+        files.add(id, name, size == -1, size);
+    }
+
+    private static void closeQuietly(java.io.Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
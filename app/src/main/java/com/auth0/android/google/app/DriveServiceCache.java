@@ -0,0 +1,128 @@
+package com.auth0.android.google.app;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import com.google.api.client.extensions.android.http.AndroidHttp;
+import com.google.api.client.googleapis.extensions.android.gms.auth.GoogleAccountCredential;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.drive.Drive;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process wide cache of the Drive services, keyed by account and scopes.
+ * Every service shares a single HTTP transport, so the pooled keep-alive connections and TLS sessions
+ * survive across refreshes instead of being set up again for every request.
+ */
+class DriveServiceCache {
+
+    /**
+     * Google APIs only send gzip encoded responses to user agents that contain "gzip". The transport already accepts gzip.
+     */
+    private static final String APPLICATION_NAME = "Auth0 Google Native Demo (gzip)";
+    static final int MAX_SIZE = 4;
+    private static DriveServiceCache instance;
+
+    private final HttpTransport transport;
+    private final Map<String, Drive> services;
+    private final AtomicLong coldCount;
+    private final AtomicLong warmCount;
+
+    DriveServiceCache(@NonNull HttpTransport transport) {
+        this.transport = transport;
+        this.services = new LinkedHashMap<>(MAX_SIZE, 0.75f, true);
+        this.coldCount = new AtomicLong();
+        this.warmCount = new AtomicLong();
+    }
+
+    @NonNull
+    static synchronized DriveServiceCache getInstance() {
+        if (instance == null) {
+            instance = new DriveServiceCache(AndroidHttp.newCompatibleTransport());
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the Drive service for the given account and scopes, creating it the first time.
+     *
+     * @param context     any context. Only the application context is kept.
+     * @param accountName the name of the Google account to authorize the requests with.
+     * @param scopes      the OAuth scopes to request.
+     * @return the shared Drive service.
+     */
+    @NonNull
+    synchronized Drive get(@NonNull Context context, @NonNull String accountName, @NonNull Collection<String> scopes) {
+        final String key = keyFor(accountName, scopes);
+        Drive service = services.get(key);
+        if (service != null) {
+            warmCount.incrementAndGet();
+            return service;
+        }
+        coldCount.incrementAndGet();
+        service = createService(context, accountName, scopes);
+        services.put(key, service);
+        if (services.size() > MAX_SIZE) {
+            final Iterator<Drive> eldest = services.values().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+        return service;
+    }
+
+    /**
+     * Creates the Drive service for the given account and scopes, authorized with their OAuth token. Called on cache misses only.
+     */
+    @NonNull
+    Drive createService(@NonNull Context context, @NonNull String accountName, @NonNull Collection<String> scopes) {
+        final GoogleAccountCredential credential = GoogleAccountCredential.usingOAuth2(context.getApplicationContext(), scopes);
+        credential.setSelectedAccountName(accountName);
+        return new Drive.Builder(transport, JacksonFactory.getDefaultInstance(), credential)
+                .setApplicationName(APPLICATION_NAME)
+                .build();
+    }
+
+    /**
+     * Forgets the services of the given account. Call it when the user logs out.
+     *
+     * @param accountName the name of the Google account.
+     */
+    synchronized void remove(@NonNull String accountName) {
+        final String prefix = accountName + '\n';
+        final Iterator<String> keys = services.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next().startsWith(prefix)) {
+                keys.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the number of services that had to be created.
+     */
+    long getColdCount() {
+        return coldCount.get();
+    }
+
+    /**
+     * @return the number of services reused from the cache.
+     */
+    long getWarmCount() {
+        return warmCount.get();
+    }
+
+    private static String keyFor(String accountName, Collection<String> scopes) {
+        final List<String> sortedScopes = new ArrayList<>(scopes);
+        Collections.sort(sortedScopes);
+        return accountName + '\n' + sortedScopes;
+    }
+}
@@ -0,0 +1,124 @@
+package com.auth0.android.google.app;
+
+import android.support.annotation.NonNull;
+import android.util.Log;
+
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.Change;
+import com.google.api.services.drive.model.ChangeList;
+import com.google.api.services.drive.model.File;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a DriveMetadataStore up to date with Drive. The first sync stores a full listing, page by page.
+ * The following syncs only apply the changes reported by the Drive changes feed since the previous one.
+ * The methods block on the network, call them from a background thread and one at a time.
+ */
+class DriveSync {
+
+    private static final String TAG = DriveSync.class.getSimpleName();
+    private static final int CHANGES_PAGE_SIZE = 1000;
+    private static final String CHANGES_FIELDS = "nextPageToken, newStartPageToken, changes(fileId, removed, file(id, name, size, trashed))";
+
+    private final Drive service;
+    private final DriveMetadataStore store;
+    private DriveFilesPager pager;
+    private String listingStartPageToken;
+
+    DriveSync(@NonNull Drive service, @NonNull DriveMetadataStore store) {
+        this.service = service;
+        this.store = store;
+    }
+
+    /**
+     * @return whether the store holds a complete listing that can be updated with the changes feed.
+     */
+    boolean isSynced() {
+        return store.getStartPageToken() != null;
+    }
+
+    /**
+     * @return whether the full listing has more pages to store.
+     */
+    boolean hasNextListingPage() {
+        return pager == null ? !isSynced() : pager.hasNextPage();
+    }
+
+    /**
+     * Stores the next page of the full listing. The first call clears the store. Once the last page is stored, the store is saved
+     * along with the changes token taken before the listing started, so the changes made during the listing are not missed.
+     *
+     * @return the files stored so far, with the ones of the page last.
+     * @throws IOException if the request fails. The same page can be requested again.
+     */
+    @NonNull
+    FileTable.Snapshot nextListingPage() throws IOException {
+        if (pager == null) {
+            listingStartPageToken = service.changes().getStartPageToken().execute().getStartPageToken();
+            store.clear();
+            pager = new DriveFilesPager(service);
+        }
+        for (File file : pager.nextPage()) {
+            store.add(file.getId(), file.getName(), DriveMetadataStore.sizeOf(file));
+        }
+        if (!pager.hasNextPage()) {
+            store.setStartPageToken(listingStartPageToken);
+            store.save();
+            Log.d(TAG, "Stored the full listing of " + store.size() + " files");
+        }
+        return store.getFiles();
+    }
+
+    /**
+     * Applies the changes made since the last sync to the store, and saves it.
+     *
+     * @return the number of changes applied.
+     * @throws IOException if a request fails. The store is left untouched, so the changes will be requested again.
+     */
+    int syncChanges() throws IOException {
+        String pageToken = store.getStartPageToken();
+        if (pageToken == null) {
+            throw new IllegalStateException("The full listing must be stored before syncing the changes");
+        }
+        // The latest change of every file, applied at once when the feed is read to the end.
+        final Map<String, File> changed = new LinkedHashMap<>();
+        int applied = 0;
+        String newStartPageToken = null;
+        while (newStartPageToken == null) {
+            final ChangeList result = service.changes().list(pageToken)
+                    .setPageSize(CHANGES_PAGE_SIZE)
+                    .setFields(CHANGES_FIELDS)
+                    .execute();
+            final List<Change> changes = result.getChanges();
+            if (changes != null) {
+                for (Change change : changes) {
+                    changed.put(change.getFileId(), isRemoved(change) ? null : change.getFile());
+                }
+                applied += changes.size();
+            }
+            newStartPageToken = result.getNewStartPageToken();
+            pageToken = result.getNextPageToken();
+            if (newStartPageToken == null && pageToken == null) {
+                throw new IOException("The changes feed returned no token to continue from");
+            }
+        }
+        if (!changed.isEmpty()) {
+            store.update(changed);
+        }
+        if (applied > 0 || !newStartPageToken.equals(store.getStartPageToken())) {
+            store.setStartPageToken(newStartPageToken);
+            store.save();
+        }
+        Log.d(TAG, "Applied " + applied + " changes");
+        return applied;
+    }
+
+    private static boolean isRemoved(Change change) {
+        final File file = change.getFile();
+        return Boolean.TRUE.equals(change.getRemoved()) || file == null || Boolean.TRUE.equals(file.getTrashed());
+    }
+}
@@ -0,0 +1,158 @@
+package com.auth0.android.google.app;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory index of the file names, to filter the listing as the user types without scanning every name.
+ * Names are split into lower case tokens at every character that is not a letter or a digit, so the extension
+ * is a token too. Files also get a "file" or "folder" token with their type.
+ * A query matches the files that have, for every token of the query, a token starting with it.
+ * <p>
+ * Files are identified by the row they have in the {@link FileTable} of the listing, so the query results can be
+ * handed to the adapter as they are.
+ */
+class FileNameIndex {
+
+    static final String FILE_TOKEN = "file";
+    static final String FOLDER_TOKEN = "folder";
+
+    private final TreeMap<String, Postings> tokens;
+    /**
+     * One past the highest row added, the number of bits the query results need.
+     */
+    private int rowLimit;
+
+    FileNameIndex() {
+        this.tokens = new TreeMap<>();
+    }
+
+    /**
+     * Adds a file to the index.
+     *
+     * @param row    the row of the file in the table, which the queries return. Every file needs a different row.
+     * @param name   the name of the file.
+     * @param folder whether it's a folder.
+     */
+    void add(int row, @Nullable String name, boolean folder) {
+        if (row < 0) {
+            throw new IllegalArgumentException("The row can't be negative: " + row);
+        }
+        rowLimit = Math.max(rowLimit, row + 1);
+        if (name != null) {
+            final String lowerCaseName = name.toLowerCase(Locale.ROOT);
+            int start = -1;
+            for (int i = 0; i <= lowerCaseName.length(); i++) {
+                final boolean tokenChar = i < lowerCaseName.length() && Character.isLetterOrDigit(lowerCaseName.charAt(i));
+                if (tokenChar && start == -1) {
+                    start = i;
+                } else if (!tokenChar && start != -1) {
+                    addToken(lowerCaseName.substring(start, i), row);
+                    start = -1;
+                }
+            }
+        }
+        addToken(folder ? FOLDER_TOKEN : FILE_TOKEN, row);
+    }
+
+    void clear() {
+        tokens.clear();
+        rowLimit = 0;
+    }
+
+    /**
+     * Finds the files matching the query.
+     *
+     * @param query the text typed by the user.
+     * @return the rows of the matching files in ascending order, or null if the query has no tokens and everything matches.
+     */
+    @Nullable
+    int[] query(@NonNull String query) {
+        final String lowerCaseQuery = query.toLowerCase(Locale.ROOT);
+        long[] matches = null;
+        int start = -1;
+        for (int i = 0; i <= lowerCaseQuery.length(); i++) {
+            final boolean tokenChar = i < lowerCaseQuery.length() && Character.isLetterOrDigit(lowerCaseQuery.charAt(i));
+            if (tokenChar && start == -1) {
+                start = i;
+            } else if (!tokenChar && start != -1) {
+                final long[] tokenMatches = matchPrefix(lowerCaseQuery.substring(start, i));
+                if (matches == null) {
+                    matches = tokenMatches;
+                } else {
+                    for (int w = 0; w < matches.length; w++) {
+                        matches[w] &= tokenMatches[w];
+                    }
+                }
+                start = -1;
+            }
+        }
+        return matches == null ? null : toRows(matches);
+    }
+
+    /**
+     * @return a bit set with the files that have a token starting with the given prefix.
+     */
+    private long[] matchPrefix(String prefix) {
+        final long[] bits = new long[(rowLimit + 63) >>> 6];
+        for (Map.Entry<String, Postings> entry : tokens.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet()) {
+            final Postings postings = entry.getValue();
+            for (int i = 0; i < postings.size; i++) {
+                final int row = postings.rows[i];
+                bits[row >>> 6] |= 1L << row;
+            }
+        }
+        return bits;
+    }
+
+    private static int[] toRows(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        final int[] rows = new int[count];
+        int next = 0;
+        for (int w = 0; w < bits.length; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                rows[next++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return rows;
+    }
+
+    private void addToken(String token, int row) {
+        Postings postings = tokens.get(token);
+        if (postings == null) {
+            postings = new Postings();
+            tokens.put(token, postings);
+        }
+        postings.add(row);
+    }
+
+    /**
+     * Rows of the files that have a token.
+     */
+    private static class Postings {
+        int[] rows = new int[2];
+        int size;
+
+        void add(int row) {
+            if (size > 0 && rows[size - 1] == row) {
+                // The same token appears twice in the name.
+                return;
+            }
+            if (size == rows.length) {
+                final int[] grown = new int[size * 2];
+                System.arraycopy(rows, 0, grown, 0, size);
+                rows = grown;
+            }
+            rows[size++] = row;
+        }
+    }
+}
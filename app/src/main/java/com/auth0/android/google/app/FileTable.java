@@ -0,0 +1,212 @@
+package com.auth0.android.google.app;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Column oriented table with the metadata of the listed files, one array per column instead of one object or
+ * formatted String per file. Sizes are kept as primitive longs and the type and flags of each file are packed
+ * in a byte. Equal names are stored once. The rows are turned into text only when they are displayed.
+ * <p>
+ * Rows can only be appended, and are numbered in the order they were added, starting at 0.
+ * Write it from one thread at a time, and read it from other threads through a {@link Snapshot}.
+ * The {@link DriveMetadataStore} keeps the files of the account in one, and the list displays its snapshots.
+ */
+class FileTable {
+
+    /**
+     * Bits of the flags byte of each row. The free bits are left for more types and flags.
+     */
+    static final int FLAG_FOLDER = 1;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final NamePool namePool;
+    private String[] ids;
+    private String[] names;
+    private long[] sizes;
+    private byte[] flags;
+    private int size;
+
+    FileTable() {
+        this.namePool = new NamePool();
+        this.ids = new String[INITIAL_CAPACITY];
+        this.names = new String[INITIAL_CAPACITY];
+        this.sizes = new long[INITIAL_CAPACITY];
+        this.flags = new byte[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Appends a file.
+     *
+     * @param id     the Drive id of the file.
+     * @param name   the name of the file.
+     * @param folder whether it's a folder.
+     * @param size   the size in bytes, or -1 if it's unknown.
+     * @return the row of the file.
+     */
+    int add(@NonNull String id, @Nullable String name, boolean folder, long size) {
+        if (this.size == ids.length) {
+            grow();
+        }
+        final int row = this.size++;
+        ids[row] = id;
+        names[row] = namePool.intern(name);
+        sizes[row] = size;
+        flags[row] = (byte) (folder ? FLAG_FOLDER : 0);
+        return row;
+    }
+
+    /**
+     * @return the number of rows.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return a read only view of the rows added so far. Rows added later won't be part of it.
+     */
+    @NonNull
+    Snapshot snapshot() {
+        return new Snapshot(ids, names, sizes, flags, size);
+    }
+
+    private void grow() {
+        final int capacity = ids.length * 2;
+        final String[] grownIds = new String[capacity];
+        final String[] grownNames = new String[capacity];
+        final long[] grownSizes = new long[capacity];
+        final byte[] grownFlags = new byte[capacity];
+        System.arraycopy(ids, 0, grownIds, 0, size);
+        System.arraycopy(names, 0, grownNames, 0, size);
+        System.arraycopy(sizes, 0, grownSizes, 0, size);
+        System.arraycopy(flags, 0, grownFlags, 0, size);
+        ids = grownIds;
+        names = grownNames;
+        sizes = grownSizes;
+        flags = grownFlags;
+    }
+
+    /**
+     * The rows of a FileTable at the time the snapshot was taken. The table only writes past the rows of existing snapshots,
+     * so a snapshot can be read from any thread once it's handed over.
+     */
+    static class Snapshot {
+        private final String[] ids;
+        private final String[] names;
+        private final long[] sizes;
+        private final byte[] flags;
+        private final int size;
+
+        private Snapshot(String[] ids, String[] names, long[] sizes, byte[] flags, int size) {
+            this.ids = ids;
+            this.names = names;
+            this.sizes = sizes;
+            this.flags = flags;
+            this.size = size;
+        }
+
+        int size() {
+            return size;
+        }
+
+        @NonNull
+        String getId(int row) {
+            return ids[checkRow(row)];
+        }
+
+        @Nullable
+        String getName(int row) {
+            return names[checkRow(row)];
+        }
+
+        /**
+         * @return the size in bytes, or -1 for folders and the files without a known size.
+         */
+        long getSize(int row) {
+            return sizes[checkRow(row)];
+        }
+
+        boolean isFolder(int row) {
+            return (getFlags(row) & FLAG_FOLDER) != 0;
+        }
+
+        int getFlags(int row) {
+            return flags[checkRow(row)];
+        }
+
+        /**
+         * @return the text displayed for the row, like "[File] notes.txt 1024" or "[Folder] Photos".
+         */
+        @NonNull
+        String format(int row) {
+            final StringBuilder text = new StringBuilder();
+            if (isFolder(row)) {
+                return text.append("[Folder] ").append(names[row]).toString();
+            }
+            return text.append("[File] ").append(names[row]).append(' ').append(sizes[row]).toString();
+        }
+
+        private int checkRow(int row) {
+            if (row < 0 || row >= size) {
+                throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+            }
+            return row;
+        }
+    }
+
+    /**
+     * Open addressing hash set of the names, which returns the instance already stored for an equal name.
+     * Costs one array slot per name, instead of an entry object per name like a HashMap.
+     */
+    private static class NamePool {
+        private String[] slots = new String[INITIAL_CAPACITY];
+        private int count;
+
+        String intern(@Nullable String name) {
+            if (name == null) {
+                return null;
+            }
+            int i = indexOf(slots, name);
+            final String stored = slots[i];
+            if (stored != null) {
+                return stored;
+            }
+            if (2 * (count + 1) > slots.length) {
+                rehash();
+                i = indexOf(slots, name);
+            }
+            slots[i] = name;
+            count++;
+            return name;
+        }
+
+        /**
+         * @return the slot holding the name, or the empty slot where it belongs.
+         */
+        private static int indexOf(String[] slots, String name) {
+            final int mask = slots.length - 1;
+            int i = mix(name.hashCode()) & mask;
+            while (slots[i] != null && !slots[i].equals(name)) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        private void rehash() {
+            final String[] rehashed = new String[slots.length * 2];
+            for (String name : slots) {
+                if (name != null) {
+                    rehashed[indexOf(rehashed, name)] = name;
+                }
+            }
+            slots = rehashed;
+        }
+
+        private static int mix(int hash) {
+            final int h = hash * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
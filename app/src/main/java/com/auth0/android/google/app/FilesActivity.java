@@ -2,52 +2,72 @@ package com.auth0.android.google.app;
 
 import android.os.AsyncTask;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.v7.app.AppCompatActivity;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
 import android.util.Log;
 import android.view.View;
-import android.widget.ArrayAdapter;
 import android.widget.Button;
-import android.widget.ListView;
+import android.widget.EditText;
 import android.widget.ProgressBar;
 import android.widget.Toast;
 
 import com.auth0.android.Auth0;
 import com.auth0.android.authentication.AuthenticationAPIClient;
 import com.auth0.android.authentication.AuthenticationException;
-import com.auth0.android.callback.BaseCallback;
 import com.auth0.android.google.GoogleAuthHandler;
 import com.auth0.android.google.GoogleAuthProvider;
+import com.auth0.android.google.UserProfileFetcher;
 import com.auth0.android.lock.AuthenticationCallback;
 import com.auth0.android.lock.Lock;
 import com.auth0.android.lock.LockCallback;
 import com.auth0.android.lock.utils.LockException;
 import com.auth0.android.result.Credentials;
 import com.auth0.android.result.UserProfile;
+import com.google.android.gms.common.Scopes;
 import com.google.android.gms.common.api.Scope;
-import com.google.api.client.extensions.android.http.AndroidHttp;
-import com.google.api.client.googleapis.extensions.android.gms.auth.GoogleAccountCredential;
-import com.google.api.client.json.jackson2.JacksonFactory;
 import com.google.api.services.drive.Drive;
 import com.google.api.services.drive.DriveScopes;
-import com.google.api.services.drive.model.File;
-import com.google.api.services.drive.model.FileList;
 
+import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class FilesActivity extends AppCompatActivity {
 
     private static final String TAG = FilesActivity.class.getSimpleName();
     private static final String GOOGLE_CONNECTION = "google-oauth2";
+    /**
+     * The next page is requested when the user scrolls this close to the end of the list.
+     */
+    private static final int PREFETCH_DISTANCE = DriveFilesPager.MIN_PAGE_SIZE;
+    private static final FileTable.Snapshot NO_FILES = new FileTable().snapshot();
 
     private Lock lock;
     private ProgressBar progressBar;
-    private ArrayList<String> files;
-    private ArrayAdapter<String> adapter;
+    /**
+     * The stored files, as of the last listing page or sync. The name index holds every row of it.
+     */
+    private FileTable.Snapshot allFiles;
+    /**
+     * The number of rows last submitted to the adapter, which may still be computing their diff.
+     */
+    private int shownCount;
+    private FilesAdapter adapter;
+    private FileNameIndex index;
+    private EditText filterInput;
     private Button loginButton;
+    private UserProfile userProfile;
+    private RecyclerView listView;
+    private LinearLayoutManager layoutManager;
+    private DriveSync sync;
+    private SyncTask syncTask;
+    private FetchPageTask pageTask;
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
@@ -69,15 +89,42 @@ public class FilesActivity extends AppCompatActivity {
             }
         });
         progressBar = (ProgressBar) findViewById(R.id.progressBar);
-        ListView listView = (ListView) findViewById(R.id.list);
-        files = new ArrayList<>();
-        adapter = new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, files);
+        listView = (RecyclerView) findViewById(R.id.list);
+        layoutManager = new LinearLayoutManager(this);
+        listView.setLayoutManager(layoutManager);
+        listView.setHasFixedSize(true);
+        allFiles = NO_FILES;
+        index = new FileNameIndex();
+        adapter = new FilesAdapter();
         listView.setAdapter(adapter);
+        filterInput = (EditText) findViewById(R.id.filter);
+        filterInput.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                applyFilter();
+            }
+        });
+        listView.addOnScrollListener(scrollListener);
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        DriveHttpCache.flush();
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        cancelTasks();
         lock.onDestroy(this);
         lock = null;
     }
@@ -88,9 +135,25 @@ public class FilesActivity extends AppCompatActivity {
 
     private GoogleAuthProvider createGoogleAuthProvider() {
         GoogleAuthProvider provider = new GoogleAuthProvider(getString(R.string.google_server_client_id), new AuthenticationAPIClient(getAccount()));
-        provider.setScopes(new Scope(DriveScopes.DRIVE_METADATA_READONLY));
+        // The email scope makes the Google account carry the email, the profile is built from it.
+        provider.setScopes(new Scope(DriveScopes.DRIVE_METADATA_READONLY), new Scope(Scopes.EMAIL));
         provider.setRequiredPermissions(new String[]{"android.permission.GET_ACCOUNTS"});
         provider.rememberLastLogin(false);
+        final UserProfileFetcher profileFetcher = new UserProfileFetcher(new AuthenticationAPIClient(getAccount()), 1, TimeUnit.MINUTES.toMillis(10));
+        profileFetcher.fromGoogleAccount(true);
+        profileFetcher.setListener(new UserProfileFetcher.Listener() {
+            @Override
+            public void onUserProfile(@NonNull Credentials credentials, @NonNull UserProfile profile) {
+                userProfile = profile;
+            }
+
+            @Override
+            public void onUserProfileFailed(@NonNull Credentials credentials, @NonNull AuthenticationException error) {
+                Log.e(TAG, "Could not obtain the user profile: " + error.getMessage());
+                userProfile = null;
+            }
+        });
+        provider.setUserProfileFetcher(profileFetcher);
         return provider;
     }
 
@@ -98,26 +161,17 @@ public class FilesActivity extends AppCompatActivity {
         @Override
         public void onAuthentication(Credentials credentials) {
             Log.i(TAG, "Auth ok! User has given us all google requested permissions.");
-            AuthenticationAPIClient client = new AuthenticationAPIClient(getAccount());
-            client.tokenInfo(credentials.getIdToken())
-                    .start(new BaseCallback<UserProfile, AuthenticationException>() {
-                        @Override
-                        public void onSuccess(UserProfile payload) {
-                            final GoogleAccountCredential credential = GoogleAccountCredential.usingOAuth2(FilesActivity.this, Collections.singletonList(DriveScopes.DRIVE_METADATA_READONLY));
-                            credential.setSelectedAccountName(payload.getEmail());
-                            runOnUiThread(new Runnable() {
-                                @Override
-                                public void run() {
-                                    new FetchFilesTask().execute(credential);
-                                }
-                            });
-                        }
-
-                        @Override
-                        public void onFailure(AuthenticationException error) {
-                        }
-                    });
-
+            // The profile was delivered by the provider right before the credentials, no extra request is needed.
+            if (userProfile == null) {
+                Toast.makeText(FilesActivity.this, "Could not obtain the user profile. Please retry.", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            final String email = userProfile.getEmail();
+            if (email == null) {
+                Toast.makeText(FilesActivity.this, "Could not obtain the account email. Please retry.", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            openDrive(email);
         }
 
         @Override
@@ -132,56 +186,169 @@ public class FilesActivity extends AppCompatActivity {
         }
     };
 
-    private class FetchFilesTask extends AsyncTask<GoogleAccountCredential, Void, List<String>> {
+    private void openDrive(@NonNull String accountName) {
+        cancelTasks();
+        final DriveServiceCache serviceCache = DriveServiceCache.getInstance();
+        final Drive service = serviceCache.get(this, accountName, Collections.singletonList(DriveScopes.DRIVE_METADATA_READONLY));
+        Log.d(TAG, "Drive services created: " + serviceCache.getColdCount() + ", reused: " + serviceCache.getWarmCount());
+        final DriveMetadataStore store = new DriveMetadataStore(new File(getFilesDir(), DriveMetadataStore.fileNameFor(accountName)));
+        sync = new DriveSync(service, store);
+        allFiles = NO_FILES;
+        index.clear();
+        applyFilter();
+        progressBar.setVisibility(View.VISIBLE);
+        syncTask = new SyncTask(store, sync);
+        syncTask.execute();
+    }
+
+    private void cancelTasks() {
+        if (syncTask != null) {
+            syncTask.cancel(true);
+            syncTask = null;
+        }
+        if (pageTask != null) {
+            pageTask.cancel(true);
+            pageTask = null;
+        }
+    }
+
+    /**
+     * Shows the stored files in place of the displayed ones.
+     */
+    private void showFiles(FileTable.Snapshot files) {
+        allFiles = NO_FILES;
+        index.clear();
+        appendFiles(files);
+    }
 
+    /**
+     * Shows the stored files, which start with the displayed ones. Only the rows added since are indexed.
+     */
+    private void appendFiles(FileTable.Snapshot files) {
+        for (int row = allFiles.size(); row < files.size(); row++) {
+            index.add(row, files.getName(row), files.isFolder(row));
+        }
+        allFiles = files;
+        applyFilter();
+    }
+
+    /**
+     * Shows the files matching the filter typed by the user, using the name index instead of scanning the names.
+     * The adapter only rebinds the rows that differ from the ones displayed.
+     */
+    private void applyFilter() {
+        final int[] matches = index.query(filterInput.getText().toString());
+        shownCount = matches == null ? allFiles.size() : matches.length;
+        adapter.submit(allFiles, matches);
+    }
+
+    private void loadNextPage() {
+        if (syncTask != null || pageTask != null || sync == null || !sync.hasNextListingPage()) {
+            return;
+        }
+        pageTask = new FetchPageTask(sync);
+        pageTask.execute();
+    }
+
+    private final RecyclerView.OnScrollListener scrollListener = new RecyclerView.OnScrollListener() {
         @Override
-        protected void onPreExecute() {
-            progressBar.setVisibility(View.VISIBLE);
+        public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+            final int totalItemCount = adapter.getItemCount();
+            if (totalItemCount > 0 && layoutManager.findLastVisibleItemPosition() >= totalItemCount - 1 - PREFETCH_DISTANCE) {
+                loadNextPage();
+            }
+        }
+    };
+
+    /**
+     * Shows the files stored on disk right away, then brings them up to date with the Drive changes.
+     * Without a complete stored listing, it starts listing the files page by page instead.
+     */
+    private class SyncTask extends AsyncTask<Void, FileTable.Snapshot, Boolean> {
+
+        private final DriveMetadataStore store;
+        private final DriveSync sync;
+
+        SyncTask(DriveMetadataStore store, DriveSync sync) {
+            this.store = store;
+            this.sync = sync;
         }
 
         @Override
-        protected List<String> doInBackground(GoogleAccountCredential... params) {
-            final Drive service = new Drive.Builder(
-                    AndroidHttp.newCompatibleTransport(),
-                    JacksonFactory.getDefaultInstance(),
-                    params[0])
-                    .setApplicationName("Auth0 Google Native Demo")
-                    .build();
-
-            List<String> fileInfo = new ArrayList<>();
-            FileList result;
+        protected Boolean doInBackground(Void... params) {
+            DriveHttpCache.install(FilesActivity.this);
+            store.load();
+            if (!sync.isSynced()) {
+                return false;
+            }
+            publishProgress(store.getFiles());
             try {
-                result = service.files().list()
-                        .setPageSize(30)
-                        .setFields("files(name, size)")
-                        .execute();
-                List<File> files = result.getFiles();
-                if (files != null) {
-                    for (File file : files) {
-                        if (file.getSize() != null) {
-                            fileInfo.add(String.format("[File] %s %s", file.getName(), file.getSize()));
-                        } else {
-                            fileInfo.add(String.format("[Folder] %s", file.getName()));
-                        }
-                    }
+                if (sync.syncChanges() > 0) {
+                    publishProgress(store.getFiles());
                 }
             } catch (IOException e) {
-                e.printStackTrace();
+                Log.e(TAG, "Could not sync the Drive changes. Showing the stored files.", e);
             }
-            return fileInfo;
+            Log.d(TAG, "HTTP cache " + DriveHttpCache.getStats());
+            return true;
         }
 
         @Override
-        protected void onPostExecute(List<String> names) {
+        protected void onProgressUpdate(FileTable.Snapshot... files) {
             loginButton.setEnabled(false);
             progressBar.setVisibility(View.GONE);
-            if (names.isEmpty()) {
+            showFiles(files[0]);
+        }
+
+        @Override
+        protected void onPostExecute(Boolean synced) {
+            syncTask = null;
+            if (!synced) {
+                loadNextPage();
+                return;
+            }
+            if (allFiles.size() == 0) {
                 Toast.makeText(FilesActivity.this, "You have no files on Google Drive!", Toast.LENGTH_LONG).show();
+            }
+        }
+    }
+
+    private class FetchPageTask extends AsyncTask<Void, Void, FileTable.Snapshot> {
+
+        private final DriveSync sync;
+
+        FetchPageTask(DriveSync sync) {
+            this.sync = sync;
+        }
+
+        @Override
+        protected FileTable.Snapshot doInBackground(Void... params) {
+            try {
+                return sync.nextListingPage();
+            } catch (IOException e) {
+                Log.e(TAG, "Could not list the Drive files", e);
+                return null;
+            }
+        }
+
+        @Override
+        protected void onPostExecute(FileTable.Snapshot files) {
+            pageTask = null;
+            loginButton.setEnabled(false);
+            progressBar.setVisibility(View.GONE);
+            if (files == null) {
+                Toast.makeText(FilesActivity.this, "Could not list your files. Please retry.", Toast.LENGTH_LONG).show();
                 return;
             }
-            files.clear();
-            files.addAll(names);
-            adapter.notifyDataSetChanged();
+            if (files.size() == 0 && !sync.hasNextListingPage()) {
+                Toast.makeText(FilesActivity.this, "You have no files on Google Drive!", Toast.LENGTH_LONG).show();
+                return;
+            }
+            appendFiles(files);
+            // Keep loading while the received pages don't fill the screen.
+            if (layoutManager.findLastVisibleItemPosition() >= shownCount - 1 - PREFETCH_DISTANCE) {
+                loadNextPage();
+            }
         }
     }
-}
\ No newline at end of file
+}
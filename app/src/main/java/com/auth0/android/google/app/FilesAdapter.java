@@ -0,0 +1,189 @@
+package com.auth0.android.google.app;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.util.DiffUtil;
+import android.support.v7.widget.RecyclerView;
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * RecyclerView adapter for the rows of a FileTable. New lists are compared to the displayed one on a background thread,
+ * and only the rows that were inserted, removed or changed are dispatched to the RecyclerView.
+ * The text of a row is only formatted when it's bound to a view.
+ * Call it from the main thread only.
+ */
+class FilesAdapter extends RecyclerView.Adapter<FilesAdapter.ViewHolder> {
+
+    /**
+     * One thread for every adapter, so the diffs are computed in the order the lists were submitted.
+     */
+    private static final Executor DIFF_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    private final Executor diffExecutor;
+    private final Executor mainExecutor;
+    private Rows items;
+    /**
+     * Incremented on every submit, to discard the diffs of lists replaced before their diff finished.
+     */
+    private int generation;
+
+    FilesAdapter() {
+        this(DIFF_EXECUTOR, new MainThreadExecutor());
+    }
+
+    /**
+     * @param diffExecutor the executor to compare the lists on.
+     * @param mainExecutor the executor to dispatch the results on, which must run the tasks on the thread the adapter is used from.
+     */
+    FilesAdapter(@NonNull Executor diffExecutor, @NonNull Executor mainExecutor) {
+        this.diffExecutor = diffExecutor;
+        this.mainExecutor = mainExecutor;
+        this.items = new Rows(new FileTable().snapshot(), null);
+    }
+
+    /**
+     * Replaces the displayed rows.
+     *
+     * @param snapshot the table to display the rows of.
+     * @param rows     the rows of the table to display in ascending order, or null to display all of them. The array must not be
+     *                 modified after it's submitted.
+     */
+    void submit(@NonNull FileTable.Snapshot snapshot, @Nullable int[] rows) {
+        final int submitGeneration = ++generation;
+        final Rows oldItems = items;
+        final Rows newItems = new Rows(snapshot, rows);
+        if (oldItems.isEmpty() || newItems.isEmpty()) {
+            // Nothing to compare, everything is inserted or removed.
+            items = newItems;
+            if (!oldItems.isEmpty()) {
+                notifyItemRangeRemoved(0, oldItems.size());
+            } else if (!newItems.isEmpty()) {
+                notifyItemRangeInserted(0, newItems.size());
+            }
+            return;
+        }
+        diffExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final DiffUtil.DiffResult result = DiffUtil.calculateDiff(new RowsCallback(oldItems, newItems), false);
+                mainExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (submitGeneration != generation) {
+                            return;
+                        }
+                        items = newItems;
+                        result.dispatchUpdatesTo(FilesAdapter.this);
+                    }
+                });
+            }
+        });
+    }
+
+    @Override
+    public ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        final TextView view = (TextView) LayoutInflater.from(parent.getContext()).inflate(R.layout.item_file, parent, false);
+        return new ViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(ViewHolder holder, int position) {
+        holder.text.setText(items.table.format(items.getRow(position)));
+    }
+
+    @Override
+    public int getItemCount() {
+        return items.size();
+    }
+
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        final TextView text;
+
+        ViewHolder(TextView view) {
+            super(view);
+            this.text = view;
+        }
+    }
+
+    private static class MainThreadExecutor implements Executor {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(@NonNull Runnable command) {
+            handler.post(command);
+        }
+    }
+
+    /**
+     * The rows of a table snapshot that are displayed.
+     */
+    private static class Rows {
+        final FileTable.Snapshot table;
+        private final int[] rows;
+
+        Rows(FileTable.Snapshot table, int[] rows) {
+            this.table = table;
+            this.rows = rows;
+        }
+
+        int size() {
+            return rows == null ? table.size() : rows.length;
+        }
+
+        boolean isEmpty() {
+            return size() == 0;
+        }
+
+        /**
+         * @return the row of the table displayed at the given position.
+         */
+        int getRow(int position) {
+            return rows == null ? position : rows[position];
+        }
+    }
+
+    private static class RowsCallback extends DiffUtil.Callback {
+        private final Rows oldItems;
+        private final Rows newItems;
+
+        RowsCallback(Rows oldItems, Rows newItems) {
+            this.oldItems = oldItems;
+            this.newItems = newItems;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldItems.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newItems.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            final String oldId = oldItems.table.getId(oldItems.getRow(oldItemPosition));
+            return oldId.equals(newItems.table.getId(newItems.getRow(newItemPosition)));
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            final FileTable.Snapshot oldTable = oldItems.table;
+            final FileTable.Snapshot newTable = newItems.table;
+            final int oldRow = oldItems.getRow(oldItemPosition);
+            final int newRow = newItems.getRow(newItemPosition);
+            final String oldName = oldTable.getName(oldRow);
+            return (oldName == null ? newTable.getName(newRow) == null : oldName.equals(newTable.getName(newRow)))
+                    && oldTable.getSize(oldRow) == newTable.getSize(newRow)
+                    && oldTable.getFlags(oldRow) == newTable.getFlags(newRow);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.auth0.android.google.app;
+
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.drive.Drive;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class DriveFilesPagerTest {
+
+    private MockWebServer server;
+    private DriveFilesPager pager;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        final Drive service = new Drive.Builder(new NetHttpTransport(), JacksonFactory.getDefaultInstance(), null)
+                .setRootUrl(server.url("/").toString())
+                .setApplicationName("DriveFilesPagerTest")
+                .build();
+        pager = new DriveFilesPager(service);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void shouldFollowTheNextPageTokenUntilTheLastPage() throws Exception {
+        enqueue("{\"nextPageToken\": \"page2\", \"files\": [{\"id\": \"a\", \"name\": \"a.txt\"}, {\"id\": \"b\", \"name\": \"b.txt\"}]}");
+        enqueue("{\"files\": [{\"id\": \"c\", \"name\": \"c.txt\"}]}");
+
+        assertThat(pager.hasNextPage(), is(true));
+        assertThat(pager.nextPage(), hasSize(2));
+        assertThat(pager.hasNextPage(), is(true));
+        assertThat(pager.nextPage(), hasSize(1));
+        assertThat(pager.hasNextPage(), is(false));
+
+        final RecordedRequest first = server.takeRequest();
+        assertThat(first.getPath(), containsString("pageSize=" + DriveFilesPager.FIRST_PAGE_SIZE));
+        assertThat(first.getPath(), not(containsString("pageToken")));
+        assertThat(first.getPath(), containsString("q=trashed"));
+        assertThat(server.takeRequest().getPath(), containsString("pageToken=page2"));
+    }
+
+    @Test
+    public void shouldNotRequestPagesAfterTheLastOne() throws Exception {
+        enqueue("{\"files\": [{\"id\": \"a\", \"name\": \"a.txt\"}]}");
+        pager.nextPage();
+
+        assertThat(pager.nextPage(), is(empty()));
+        assertThat(server.getRequestCount(), is(1));
+    }
+
+    @Test
+    public void shouldReturnAnEmptyPageWhenTheResponseHasNoFiles() throws Exception {
+        enqueue("{}");
+
+        assertThat(pager.nextPage(), is(empty()));
+        assertThat(pager.hasNextPage(), is(false));
+    }
+
+    @Test
+    public void shouldRequestTheSamePageAgainAfterAFailure() throws Exception {
+        enqueue("{\"nextPageToken\": \"page2\", \"files\": []}");
+        server.enqueue(new MockResponse().setResponseCode(500));
+        enqueue("{\"files\": []}");
+        pager.nextPage();
+
+        try {
+            pager.nextPage();
+            fail("Expected an IOException");
+        } catch (IOException ignored) {
+        }
+        assertThat(pager.hasNextPage(), is(true));
+        pager.nextPage();
+
+        server.takeRequest();
+        assertThat(server.takeRequest().getPath(), containsString("pageToken=page2"));
+        assertThat(server.takeRequest().getPath(), containsString("pageToken=page2"));
+        assertThat(pager.hasNextPage(), is(false));
+    }
+
+    @Test
+    public void shouldStartWithASmallPage() throws Exception {
+        assertThat(pager.getPageSize(), is(DriveFilesPager.FIRST_PAGE_SIZE));
+    }
+
+    @Test
+    public void shouldDoubleThePageSizeWhenPagesAreFast() throws Exception {
+        pager.adaptPageSize(DriveFilesPager.TARGET_LATENCY_MS / 2 - 1);
+        assertThat(pager.getPageSize(), is(DriveFilesPager.FIRST_PAGE_SIZE * 2));
+
+        for (int i = 0; i < 10; i++) {
+            pager.adaptPageSize(0);
+        }
+        assertThat(pager.getPageSize(), is(DriveFilesPager.MAX_PAGE_SIZE));
+    }
+
+    @Test
+    public void shouldHalveThePageSizeWhenPagesAreSlow() throws Exception {
+        pager.adaptPageSize(0);
+        pager.adaptPageSize(0);
+        pager.adaptPageSize(DriveFilesPager.TARGET_LATENCY_MS + 1);
+        assertThat(pager.getPageSize(), is(DriveFilesPager.FIRST_PAGE_SIZE * 2));
+
+        for (int i = 0; i < 10; i++) {
+            pager.adaptPageSize(DriveFilesPager.TARGET_LATENCY_MS * 4);
+        }
+        assertThat(pager.getPageSize(), is(DriveFilesPager.MIN_PAGE_SIZE));
+    }
+
+    @Test
+    public void shouldKeepThePageSizeWhenPagesTakeAboutTheTargetLatency() throws Exception {
+        pager.adaptPageSize(0);
+
+        pager.adaptPageSize(DriveFilesPager.TARGET_LATENCY_MS / 2);
+        pager.adaptPageSize(DriveFilesPager.TARGET_LATENCY_MS);
+
+        assertThat(pager.getPageSize(), is(DriveFilesPager.FIRST_PAGE_SIZE * 2));
+    }
+
+    private void enqueue(String json) {
+        server.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json; charset=UTF-8")
+                .setBody(json));
+    }
+}
@@ -0,0 +1,207 @@
+package com.auth0.android.google.app;
+
+import android.content.Context;
+import android.net.http.HttpResponseCache;
+
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.javanet.ConnectionFactory;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.FileList;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLStreamHandler;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the Drive requests through the platform HttpResponseCache and HttpURLConnection implementation.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 23,
+        shadows = {DriveHttpCacheTest.CallThroughHttpResponseCache.class, DriveHttpCacheTest.JvmOkHttpPlatform.class},
+        instrumentedPackages = "com.android.okhttp")
+public class DriveHttpCacheTest {
+
+    private static final String LISTING = "{\"files\": [{\"id\": \"a\", \"name\": \"a.txt\"}]}";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private Drive service;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        final Context context = mock(Context.class);
+        when(context.getCacheDir()).thenReturn(folder.getRoot());
+        DriveHttpCache.install(context);
+
+        final NetHttpTransport transport = new NetHttpTransport.Builder()
+                .setConnectionFactory(new PlatformConnectionFactory())
+                .build();
+        service = new Drive.Builder(transport, JacksonFactory.getDefaultInstance(), new HttpRequestInitializer() {
+            @Override
+            public void initialize(HttpRequest request) throws IOException {
+                request.getHeaders().setAuthorization("Bearer token");
+            }
+        }).setRootUrl(server.url("/").toString())
+                .setApplicationName("DriveHttpCacheTest")
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        final HttpResponseCache cache = HttpResponseCache.getInstalled();
+        if (cache != null) {
+            // Uninstalls it too.
+            cache.close();
+        }
+        server.shutdown();
+    }
+
+    @Test
+    public void shouldInstallTheCacheOnce() throws Exception {
+        final HttpResponseCache installed = HttpResponseCache.getInstalled();
+
+        final Context context = mock(Context.class);
+        when(context.getCacheDir()).thenReturn(folder.newFolder());
+        DriveHttpCache.install(context);
+
+        assertThat(installed, is(notNullValue()));
+        assertThat(HttpResponseCache.getInstalled(), is(installed));
+    }
+
+    @Test
+    public void shouldCountTheFirstListingAsAMiss() throws Exception {
+        server.enqueue(listing());
+
+        assertThat(list().getFiles().size(), is(1));
+
+        final DriveHttpCache.Stats stats = DriveHttpCache.getStats();
+        assertThat(stats.hits, is(0));
+        assertThat(stats.revalidations, is(0));
+        assertThat(stats.misses, is(1));
+    }
+
+    @Test
+    public void shouldRevalidateTheListingWithTheETag() throws Exception {
+        server.enqueue(listing());
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+
+        list();
+        final FileList revalidated = list();
+
+        assertThat(revalidated.getFiles().size(), is(1));
+        assertThat(revalidated.getFiles().get(0).getName(), is("a.txt"));
+        final RecordedRequest first = server.takeRequest();
+        assertThat(first.getHeader("Authorization"), is("Bearer token"));
+        assertThat(first.getHeader("If-None-Match"), is(nullValue()));
+        final RecordedRequest second = server.takeRequest();
+        assertThat(second.getHeader("If-None-Match"), is("\"v1\""));
+
+        DriveHttpCache.flush();
+        final DriveHttpCache.Stats stats = DriveHttpCache.getStats();
+        assertThat(stats.hits, is(0));
+        assertThat(stats.revalidations, is(1));
+        assertThat(stats.misses, is(1));
+        assertThat(stats.sizeBytes, is(greaterThan(0L)));
+    }
+
+    @Test
+    public void shouldDownloadTheListingAgainWhenItChanged() throws Exception {
+        server.enqueue(listing());
+        server.enqueue(new MockResponse()
+                .setHeader("ETag", "\"v2\"")
+                .setHeader("Cache-Control", "private, max-age=0, must-revalidate, no-transform")
+                .setHeader("Content-Type", "application/json; charset=UTF-8")
+                .setBody("{\"files\": []}"));
+
+        list();
+
+        assertThat(list().getFiles().size(), is(0));
+        server.takeRequest();
+        assertThat(server.takeRequest().getHeader("If-None-Match"), is("\"v1\""));
+        final DriveHttpCache.Stats stats = DriveHttpCache.getStats();
+        assertThat(stats.revalidations, is(0));
+        assertThat(stats.misses, is(2));
+    }
+
+    private FileList list() throws IOException {
+        return service.files().list().setFields("files(id,name)").execute();
+    }
+
+    /**
+     * @return a listing with the caching headers the Drive API sends.
+     */
+    private static MockResponse listing() {
+        return new MockResponse()
+                .setHeader("ETag", "\"v1\"")
+                .setHeader("Cache-Control", "private, max-age=0, must-revalidate, no-transform")
+                .setHeader("Content-Type", "application/json; charset=UTF-8")
+                .setBody(LISTING);
+    }
+
+    /**
+     * Opens the connections with the platform HttpURLConnection, the one that uses the installed HttpResponseCache.
+     * The JVM implementation doesn't revalidate the cached responses.
+     */
+    private static class PlatformConnectionFactory implements ConnectionFactory {
+        private final URLStreamHandler handler;
+
+        PlatformConnectionFactory() throws Exception {
+            handler = (URLStreamHandler) Class.forName("com.android.okhttp.HttpHandler").newInstance();
+        }
+
+        @Override
+        public HttpURLConnection openConnection(URL url) throws IOException {
+            return (HttpURLConnection) new URL(null, url.toString(), handler).openConnection();
+        }
+    }
+
+    /**
+     * Replaces the Robolectric shadow, which doesn't cache anything, with the platform implementation.
+     */
+    @Implements(value = HttpResponseCache.class, callThroughByDefault = true)
+    public static class CallThroughHttpResponseCache {
+    }
+
+    /**
+     * The platform HttpURLConnection parses the URLs with a method that only the Android runtime has.
+     */
+    @Implements(className = "com.android.okhttp.internal.Platform", callThroughByDefault = true)
+    public static class JvmOkHttpPlatform {
+        @Implementation
+        public URI toUriLenient(URL url) throws URISyntaxException {
+            return url.toURI();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.auth0.android.google.app;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class DriveMetadataStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldNameTheFileWithTheDigestOfTheAccountName() throws Exception {
+        assertThat(DriveMetadataStore.fileNameFor("abc"), is("drive-ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad"));
+    }
+
+    @Test
+    public void shouldNameTheFilesOfAccountsWithTheSameHashCodeDifferently() throws Exception {
+        assertThat("Aa".hashCode(), is("BB".hashCode()));
+
+        assertThat(DriveMetadataStore.fileNameFor("Aa"), is(not(DriveMetadataStore.fileNameFor("BB"))));
+    }
+
+    @Test
+    public void shouldLoadTheSavedFilesAndToken() throws Exception {
+        final File file = new File(folder.getRoot(), DriveMetadataStore.fileNameFor("john@gmail.com"));
+        final DriveMetadataStore store = new DriveMetadataStore(file);
+        store.add("a", "notes.txt", 1024);
+        store.add("b", null, -1);
+        store.setStartPageToken("10");
+        store.save();
+
+        final DriveMetadataStore loaded = new DriveMetadataStore(file);
+        loaded.load();
+
+        assertThat(loaded.getStartPageToken(), is("10"));
+        assertThat(loaded.size(), is(2));
+        final FileTable.Snapshot files = loaded.getFiles();
+        assertThat(files.getId(0), is("a"));
+        assertThat(files.getName(0), is("notes.txt"));
+        assertThat(files.getSize(0), is(1024L));
+        assertThat(files.isFolder(0), is(false));
+        assertThat(files.getName(1), is(nullValue()));
+        assertThat(files.isFolder(1), is(true));
+    }
+
+    @Test
+    public void shouldUpdateTheChangedFilesInPlaceAndAppendTheNewOnes() throws Exception {
+        final DriveMetadataStore store = new DriveMetadataStore(folder.newFile());
+        store.add("a", "a.txt", 1);
+        store.add("b", "b.txt", 2);
+        store.add("c", "c.txt", 3);
+        final Map<String, com.google.api.services.drive.model.File> changes = new LinkedHashMap<>();
+        changes.put("d", new com.google.api.services.drive.model.File().setName("Photos"));
+        changes.put("b", null);
+        changes.put("a", new com.google.api.services.drive.model.File().setName("renamed.txt").setSize(10L));
+
+        store.update(changes);
+
+        final FileTable.Snapshot files = store.getFiles();
+        assertThat(files.size(), is(3));
+        assertThat(files.getId(0), is("a"));
+        assertThat(files.getName(0), is("renamed.txt"));
+        assertThat(files.getSize(0), is(10L));
+        assertThat(files.getId(1), is("c"));
+        assertThat(files.getId(2), is("d"));
+        assertThat(files.isFolder(2), is(true));
+    }
+
+    @Test
+    public void shouldStartAnEmptyTableOnClear() throws Exception {
+        final DriveMetadataStore store = new DriveMetadataStore(folder.newFile());
+        store.add("a", "a.txt", 1);
+        store.setStartPageToken("10");
+        final FileTable.Snapshot before = store.getFiles();
+
+        store.clear();
+        store.add("b", "b.txt", 2);
+
+        assertThat(store.getStartPageToken(), is(nullValue()));
+        assertThat(store.getFiles().size(), is(1));
+        assertThat(store.getFiles().getId(0), is("b"));
+        assertThat(before.getId(0), is("a"));
+    }
+}
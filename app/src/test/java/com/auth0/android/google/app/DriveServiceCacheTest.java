@@ -0,0 +1,98 @@
+package com.auth0.android.google.app;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.drive.Drive;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class DriveServiceCacheTest {
+
+    private static final Collection<String> READ_ONLY = Collections.singletonList("drive.metadata.readonly");
+
+    private Context context;
+    private DriveServiceCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        context = mock(Context.class);
+        cache = new DriveServiceCache(new NetHttpTransport()) {
+            @NonNull
+            @Override
+            Drive createService(@NonNull Context context, @NonNull String accountName, @NonNull Collection<String> scopes) {
+                // The real credential needs the AccountManager, the cache only keeps the service.
+                return new Drive.Builder(new NetHttpTransport(), JacksonFactory.getDefaultInstance(), null)
+                        .setApplicationName("DriveServiceCacheTest")
+                        .build();
+            }
+        };
+    }
+
+    @Test
+    public void shouldReuseTheServiceOfTheSameAccountAndScopes() throws Exception {
+        final Drive service = cache.get(context, "john@gmail.com", READ_ONLY);
+
+        assertThat(cache.get(context, "john@gmail.com", READ_ONLY), is(sameInstance(service)));
+        assertThat(cache.getColdCount(), is(1L));
+        assertThat(cache.getWarmCount(), is(1L));
+    }
+
+    @Test
+    public void shouldIgnoreTheScopesOrder() throws Exception {
+        final Drive service = cache.get(context, "john@gmail.com", Arrays.asList("drive.file", "drive.metadata.readonly"));
+
+        assertThat(cache.get(context, "john@gmail.com", Arrays.asList("drive.metadata.readonly", "drive.file")), is(sameInstance(service)));
+    }
+
+    @Test
+    public void shouldCreateAServiceForEveryAccountAndScopes() throws Exception {
+        final Drive service = cache.get(context, "john@gmail.com", READ_ONLY);
+
+        assertThat(cache.get(context, "jane@gmail.com", READ_ONLY), is(not(sameInstance(service))));
+        assertThat(cache.get(context, "john@gmail.com", Collections.singletonList("drive.file")), is(not(sameInstance(service))));
+        assertThat(cache.getColdCount(), is(3L));
+        assertThat(cache.getWarmCount(), is(0L));
+    }
+
+    @Test
+    public void shouldEvictTheLeastRecentlyUsedService() throws Exception {
+        final Drive first = cache.get(context, "account0", READ_ONLY);
+        final Drive second = cache.get(context, "account1", READ_ONLY);
+        for (int i = 2; i < DriveServiceCache.MAX_SIZE; i++) {
+            cache.get(context, "account" + i, READ_ONLY);
+        }
+        cache.get(context, "account0", READ_ONLY);
+
+        cache.get(context, "account" + DriveServiceCache.MAX_SIZE, READ_ONLY);
+
+        assertThat(cache.get(context, "account0", READ_ONLY), is(sameInstance(first)));
+        assertThat(cache.get(context, "account1", READ_ONLY), is(not(sameInstance(second))));
+        assertThat(cache.getColdCount(), is(DriveServiceCache.MAX_SIZE + 2L));
+        assertThat(cache.getWarmCount(), is(2L));
+    }
+
+    @Test
+    public void shouldRemoveOnlyTheServicesOfTheGivenAccount() throws Exception {
+        final Drive john = cache.get(context, "john", READ_ONLY);
+        final Drive johnny = cache.get(context, "johnny", READ_ONLY);
+
+        cache.remove("john");
+
+        assertThat(cache.get(context, "john", READ_ONLY), is(not(sameInstance(john))));
+        assertThat(cache.get(context, "johnny", READ_ONLY), is(sameInstance(johnny)));
+    }
+}
@@ -0,0 +1,195 @@
+package com.auth0.android.google.app;
+
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.drive.Drive;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class DriveSyncTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private File storeFile;
+    private DriveMetadataStore store;
+    private DriveSync sync;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        final Drive service = new Drive.Builder(new NetHttpTransport(), JacksonFactory.getDefaultInstance(), null)
+                .setRootUrl(server.url("/").toString())
+                .setApplicationName("DriveSyncTest")
+                .build();
+        storeFile = new File(folder.getRoot(), "drive");
+        store = new DriveMetadataStore(storeFile);
+        sync = new DriveSync(service, store);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void shouldStoreTheFullListingPageByPage() throws Exception {
+        enqueue("{\"startPageToken\": \"10\"}");
+        enqueue("{\"nextPageToken\": \"page2\", \"files\": [{\"id\": \"a\", \"name\": \"notes.txt\", \"size\": \"1024\"}]}");
+        enqueue("{\"files\": [{\"id\": \"b\", \"name\": \"Photos\"}]}");
+
+        assertThat(sync.hasNextListingPage(), is(true));
+        final FileTable.Snapshot listed = sync.nextListingPage();
+        assertThat(names(listed), contains("notes.txt"));
+        assertThat(sync.isSynced(), is(false));
+        assertThat(sync.hasNextListingPage(), is(true));
+        assertThat(names(sync.nextListingPage()), contains("notes.txt", "Photos"));
+        assertThat(names(listed), contains("notes.txt"));
+        assertThat(sync.isSynced(), is(true));
+        assertThat(sync.hasNextListingPage(), is(false));
+
+        assertThat(server.takeRequest().getPath(), containsString("/changes/startPageToken"));
+        final RecordedRequest firstPage = server.takeRequest();
+        assertThat(firstPage.getPath(), containsString("/files?"));
+        assertThat(firstPage.getPath(), containsString("pageSize=" + DriveFilesPager.FIRST_PAGE_SIZE));
+        assertThat(server.takeRequest().getPath(), containsString("pageToken=page2"));
+
+        final DriveMetadataStore saved = new DriveMetadataStore(storeFile);
+        saved.load();
+        assertThat(saved.getStartPageToken(), is("10"));
+        final FileTable.Snapshot files = saved.getFiles();
+        assertThat(names(files), contains("notes.txt", "Photos"));
+        assertThat(files.getSize(0), is(1024L));
+        assertThat(files.isFolder(0), is(false));
+        assertThat(files.getSize(1), is(-1L));
+        assertThat(files.isFolder(1), is(true));
+    }
+
+    @Test
+    public void shouldApplyTheChangesSinceTheLastSync() throws Exception {
+        storeSyncedListing("10");
+        enqueue("{\"nextPageToken\": \"11\", \"changes\": [{\"fileId\": \"a\", \"file\": {\"id\": \"a\", \"name\": \"renamed.txt\", \"size\": \"2048\"}}]}");
+        enqueue("{\"newStartPageToken\": \"12\", \"changes\": [{\"fileId\": \"d\", \"file\": {\"id\": \"d\", \"name\": \"new.txt\", \"size\": \"1\"}}]}");
+
+        assertThat(sync.syncChanges(), is(2));
+
+        assertThat(server.takeRequest().getPath(), containsString("pageToken=10"));
+        assertThat(server.takeRequest().getPath(), containsString("pageToken=11"));
+        assertThat(store.getStartPageToken(), is("12"));
+        assertThat(names(store.getFiles()), contains("renamed.txt", "b.txt", "c.txt", "new.txt"));
+        assertThat(store.getFiles().getSize(0), is(2048L));
+
+        final DriveMetadataStore saved = new DriveMetadataStore(storeFile);
+        saved.load();
+        assertThat(saved.getStartPageToken(), is("12"));
+        assertThat(saved.size(), is(4));
+    }
+
+    @Test
+    public void shouldKeepTheFilesOfThePreviousSnapshots() throws Exception {
+        storeSyncedListing("10");
+        final FileTable.Snapshot before = store.getFiles();
+        enqueue("{\"newStartPageToken\": \"11\", \"changes\": ["
+                + "{\"fileId\": \"a\", \"removed\": true},"
+                + "{\"fileId\": \"b\", \"file\": {\"id\": \"b\", \"name\": \"renamed.txt\", \"size\": \"20\"}}]}");
+
+        sync.syncChanges();
+
+        assertThat(names(store.getFiles()), contains("renamed.txt", "c.txt"));
+        assertThat(names(before), contains("a.txt", "b.txt", "c.txt"));
+    }
+
+    @Test
+    public void shouldRemoveTheRemovedAndTrashedFiles() throws Exception {
+        storeSyncedListing("10");
+        enqueue("{\"newStartPageToken\": \"11\", \"changes\": ["
+                + "{\"fileId\": \"a\", \"removed\": true},"
+                + "{\"fileId\": \"b\", \"file\": {\"id\": \"b\", \"name\": \"b.txt\", \"trashed\": true}}]}");
+
+        assertThat(sync.syncChanges(), is(2));
+
+        assertThat(names(store.getFiles()), contains("c.txt"));
+        assertThat(store.getStartPageToken(), is("11"));
+    }
+
+    @Test
+    public void shouldKeepThePreviousTokenWhenAChangesRequestFails() throws Exception {
+        storeSyncedListing("10");
+        enqueue("{\"nextPageToken\": \"11\", \"changes\": [{\"fileId\": \"a\", \"removed\": true}]}");
+        server.enqueue(new MockResponse().setResponseCode(500));
+
+        try {
+            sync.syncChanges();
+            fail("Expected an IOException");
+        } catch (IOException ignored) {
+        }
+
+        assertThat(store.getStartPageToken(), is("10"));
+        assertThat(names(store.getFiles()), contains("a.txt", "b.txt", "c.txt"));
+        final DriveMetadataStore saved = new DriveMetadataStore(storeFile);
+        saved.load();
+        assertThat(saved.getStartPageToken(), is("10"));
+        assertThat(names(saved.getFiles()), contains("a.txt", "b.txt", "c.txt"));
+    }
+
+    @Test
+    public void shouldNotStoreATokenUntilTheListingIsComplete() throws Exception {
+        enqueue("{\"startPageToken\": \"10\"}");
+        enqueue("{\"nextPageToken\": \"page2\", \"files\": [{\"id\": \"a\", \"name\": \"notes.txt\"}]}");
+        server.enqueue(new MockResponse().setResponseCode(500));
+
+        sync.nextListingPage();
+        try {
+            sync.nextListingPage();
+            fail("Expected an IOException");
+        } catch (IOException ignored) {
+        }
+
+        assertThat(store.getStartPageToken(), is(nullValue()));
+        assertThat(sync.isSynced(), is(false));
+        assertThat(sync.hasNextListingPage(), is(true));
+    }
+
+    private void storeSyncedListing(String startPageToken) throws IOException {
+        store.add("a", "a.txt", 10);
+        store.add("b", "b.txt", 20);
+        store.add("c", "c.txt", 30);
+        store.setStartPageToken(startPageToken);
+        store.save();
+    }
+
+    private void enqueue(String json) {
+        server.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json; charset=UTF-8")
+                .setBody(json));
+    }
+
+    private static List<String> names(FileTable.Snapshot files) {
+        final List<String> names = new ArrayList<>(files.size());
+        for (int row = 0; row < files.size(); row++) {
+            names.add(files.getName(row));
+        }
+        return names;
+    }
+}
@@ -0,0 +1,145 @@
+package com.auth0.android.google.app;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class FileNameIndexTest {
+
+    private FileNameIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        index = new FileNameIndex();
+    }
+
+    @Test
+    public void shouldIgnoreTheCase() throws Exception {
+        index.add(0, "Quarterly REPORT.pdf", false);
+
+        assertThat(index.query("report"), is(new int[]{0}));
+        assertThat(index.query("QUARTERLY"), is(new int[]{0}));
+        assertThat(index.query("Pdf"), is(new int[]{0}));
+    }
+
+    @Test
+    public void shouldSplitTheNameAtPunctuationAndSpaces() throws Exception {
+        index.add(0, "budget_2017-final (copy).xlsx", false);
+
+        assertThat(index.query("budget"), is(new int[]{0}));
+        assertThat(index.query("2017"), is(new int[]{0}));
+        assertThat(index.query("final"), is(new int[]{0}));
+        assertThat(index.query("copy"), is(new int[]{0}));
+        assertThat(index.query("xlsx"), is(new int[]{0}));
+    }
+
+    @Test
+    public void shouldNotSplitCamelCaseNames() throws Exception {
+        index.add(0, "MyReport.txt", false);
+
+        assertThat(index.query("myrep"), is(new int[]{0}));
+        assertThat(index.query("report"), is(new int[0]));
+    }
+
+    @Test
+    public void shouldKeepTheDigitsInTheToken() throws Exception {
+        index.add(0, "report2017.pdf", false);
+        index.add(1, "IMG_0042.jpg", false);
+
+        assertThat(index.query("report2"), is(new int[]{0}));
+        assertThat(index.query("2017"), is(new int[0]));
+        assertThat(index.query("0042"), is(new int[]{1}));
+        assertThat(index.query("42"), is(new int[0]));
+    }
+
+    @Test
+    public void shouldMatchTheTokensStartingWithTheQuery() throws Exception {
+        index.add(0, "report.pdf", false);
+        index.add(1, "reports", true);
+        index.add(2, "pre-report.doc", false);
+        index.add(3, "rep.txt", false);
+
+        assertThat(index.query("rep"), is(new int[]{0, 1, 2, 3}));
+        assertThat(index.query("repo"), is(new int[]{0, 1, 2}));
+        assertThat(index.query("reports"), is(new int[]{1}));
+        assertThat(index.query("port"), is(new int[0]));
+    }
+
+    @Test
+    public void shouldMatchEveryTokenOfTheQuery() throws Exception {
+        index.add(0, "report 2016.pdf", false);
+        index.add(1, "report 2017.pdf", false);
+        index.add(2, "report 2017.doc", false);
+        index.add(3, "2017.pdf", false);
+
+        assertThat(index.query("report 2017"), is(new int[]{1, 2}));
+        assertThat(index.query("2017 report"), is(new int[]{1, 2}));
+        assertThat(index.query("rep, 2017 .pdf"), is(new int[]{1}));
+        assertThat(index.query("report 2018"), is(new int[0]));
+    }
+
+    @Test
+    public void shouldMatchTheFileType() throws Exception {
+        index.add(0, "notes.txt", false);
+        index.add(1, "Photos", true);
+        index.add(2, null, false);
+
+        assertThat(index.query("folder"), is(new int[]{1}));
+        assertThat(index.query("file"), is(new int[]{0, 2}));
+    }
+
+    @Test
+    public void shouldMatchEverythingWhenTheQueryHasNoTokens() throws Exception {
+        index.add(0, "notes.txt", false);
+
+        assertThat(index.query(""), is(nullValue()));
+        assertThat(index.query(" - . "), is(nullValue()));
+    }
+
+    @Test
+    public void shouldRemoveEveryFileOnClear() throws Exception {
+        index.add(0, "notes.txt", false);
+        index.add(1, "notes.doc", false);
+
+        index.clear();
+        index.add(0, "todo.txt", false);
+
+        assertThat(index.query("notes"), is(new int[0]));
+        assertThat(index.query("txt"), is(new int[]{0}));
+    }
+
+    @Test
+    public void shouldReturnTheGivenRows() throws Exception {
+        index.add(70, "b.txt", false);
+        index.add(3, "a.txt", false);
+        index.add(64, "c.doc", false);
+
+        assertThat(index.query("txt"), is(new int[]{3, 70}));
+        assertThat(index.query("file"), is(new int[]{3, 64, 70}));
+    }
+
+    @Test
+    public void shouldReturnTheRowsOfTheFilesInTheTable() throws Exception {
+        final FileTable table = new FileTable();
+        final String[] names = {"notes.txt", "Photos", "todo.txt", "report.pdf"};
+        table.add("x", "already in the table", false, 0);
+        for (String name : names) {
+            final boolean folder = !name.contains(".");
+            index.add(table.add(name, name, folder, 1), name, folder);
+        }
+
+        final FileTable.Snapshot snapshot = table.snapshot();
+        final int[] rows = index.query("txt");
+        assertThat(rows.length, is(2));
+        assertThat(snapshot.getName(rows[0]), is("notes.txt"));
+        assertThat(snapshot.getName(rows[1]), is("todo.txt"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAcceptANegativeRow() throws Exception {
+        index.add(-1, "notes.txt", false);
+    }
+}
@@ -0,0 +1,139 @@
+package com.auth0.android.google.app;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class FileTableTest {
+
+    private FileTable table;
+
+    @Before
+    public void setUp() throws Exception {
+        table = new FileTable();
+    }
+
+    @Test
+    public void shouldNumberTheRowsInTheOrderTheyWereAdded() throws Exception {
+        assertThat(table.add("a", "a.txt", false, 1), is(0));
+        assertThat(table.add("b", "b.txt", false, 2), is(1));
+        assertThat(table.size(), is(2));
+    }
+
+    @Test
+    public void shouldKeepTheSizeAndTheFolderFlagOfEveryRow() throws Exception {
+        table.add("a", "big.iso", false, 5L * 1024 * 1024 * 1024);
+        table.add("b", "Photos", true, -1);
+        table.add("c", "empty.txt", false, 0);
+
+        final FileTable.Snapshot snapshot = table.snapshot();
+        assertThat(snapshot.getSize(0), is(5L * 1024 * 1024 * 1024));
+        assertThat(snapshot.isFolder(0), is(false));
+        assertThat(snapshot.getFlags(0), is(0));
+        assertThat(snapshot.getSize(1), is(-1L));
+        assertThat(snapshot.isFolder(1), is(true));
+        assertThat(snapshot.getFlags(1), is(FileTable.FLAG_FOLDER));
+        assertThat(snapshot.getSize(2), is(0L));
+        assertThat(snapshot.isFolder(2), is(false));
+    }
+
+    @Test
+    public void shouldFormatTheRows() throws Exception {
+        table.add("a", "notes.txt", false, 1024);
+        table.add("b", "Photos", true, -1);
+
+        final FileTable.Snapshot snapshot = table.snapshot();
+        assertThat(snapshot.format(0), is("[File] notes.txt 1024"));
+        assertThat(snapshot.format(1), is("[Folder] Photos"));
+    }
+
+    @Test
+    public void shouldStoreEqualNamesOnce() throws Exception {
+        final String name = "Untitled document";
+        table.add("a", name, false, 1);
+        table.add("b", new String(name), false, 2);
+        table.add("c", "Untitled spreadsheet", false, 3);
+
+        final FileTable.Snapshot snapshot = table.snapshot();
+        assertThat(snapshot.getName(1), is(sameInstance(name)));
+        assertThat(snapshot.getName(2), is(not(sameInstance(name))));
+        assertThat(snapshot.getName(2), is("Untitled spreadsheet"));
+    }
+
+    @Test
+    public void shouldStoreEqualNamesOncePastTheInitialCapacity() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            table.add("id" + i, "file " + i, false, i);
+        }
+        final String name = "file 500";
+        table.add("copy", new String(name), false, 0);
+
+        final FileTable.Snapshot snapshot = table.snapshot();
+        assertThat(snapshot.getName(1000), is(sameInstance(snapshot.getName(500))));
+    }
+
+    @Test
+    public void shouldAcceptFilesWithoutName() throws Exception {
+        table.add("a", null, false, 1);
+        table.add("b", null, true, -1);
+
+        final FileTable.Snapshot snapshot = table.snapshot();
+        assertThat(snapshot.getName(0), is(nullValue()));
+        assertThat(snapshot.getName(1), is(nullValue()));
+        assertThat(snapshot.format(0), is("[File] null 1"));
+    }
+
+    @Test
+    public void shouldKeepEveryRowWhenGrowing() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            table.add("id" + i, "file " + i, i % 10 == 0, i % 10 == 0 ? -1 : i);
+        }
+
+        final FileTable.Snapshot snapshot = table.snapshot();
+        assertThat(snapshot.size(), is(1000));
+        for (int i = 0; i < 1000; i++) {
+            assertThat(snapshot.getId(i), is("id" + i));
+            assertThat(snapshot.getName(i), is("file " + i));
+            assertThat(snapshot.isFolder(i), is(i % 10 == 0));
+            assertThat(snapshot.getSize(i), is(i % 10 == 0 ? -1L : i));
+        }
+    }
+
+    @Test
+    public void shouldNotShowTheRowsAddedAfterTheSnapshot() throws Exception {
+        table.add("a", "a.txt", false, 1);
+        final FileTable.Snapshot snapshot = table.snapshot();
+
+        // Enough rows to grow the columns, which the snapshot keeps reading.
+        for (int i = 0; i < 200; i++) {
+            table.add("id" + i, "file " + i, false, i);
+        }
+
+        assertThat(snapshot.size(), is(1));
+        assertThat(snapshot.getId(0), is("a"));
+        assertThat(snapshot.getName(0), is("a.txt"));
+        assertThat(snapshot.getSize(0), is(1L));
+        assertThat(table.snapshot().size(), is(201));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldNotReadTheRowsAddedAfterTheSnapshot() throws Exception {
+        table.add("a", "a.txt", false, 1);
+        final FileTable.Snapshot snapshot = table.snapshot();
+        table.add("b", "b.txt", false, 2);
+
+        snapshot.getId(1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldNotReadNegativeRows() throws Exception {
+        table.add("a", "a.txt", false, 1);
+
+        table.snapshot().getName(-1);
+    }
+}
@@ -0,0 +1,174 @@
+package com.auth0.android.google.app;
+
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FilesAdapterTest {
+
+    private QueueExecutor diffExecutor;
+    private QueueExecutor mainExecutor;
+    private FilesAdapter adapter;
+    private RecordingObserver observer;
+
+    @Before
+    public void setUp() throws Exception {
+        diffExecutor = new QueueExecutor();
+        mainExecutor = new QueueExecutor();
+        adapter = new FilesAdapter(diffExecutor, mainExecutor);
+        observer = new RecordingObserver();
+        adapter.registerAdapterDataObserver(observer);
+    }
+
+    @Test
+    public void shouldInsertTheFirstListWithoutDiffing() throws Exception {
+        adapter.submit(table("a.txt", "b.txt").snapshot(), null);
+
+        assertThat(adapter.getItemCount(), is(2));
+        assertThat(observer.events, contains("inserted 0 2"));
+        assertThat(diffExecutor.tasks, is(empty()));
+    }
+
+    @Test
+    public void shouldDisplayOnlyTheGivenRows() throws Exception {
+        adapter.submit(table("a.txt", "b.txt", "c.txt").snapshot(), new int[]{0, 2});
+
+        assertThat(adapter.getItemCount(), is(2));
+    }
+
+    @Test
+    public void shouldRemoveEveryRowWhenTheNewListIsEmpty() throws Exception {
+        adapter.submit(table("a.txt", "b.txt").snapshot(), null);
+        observer.events.clear();
+
+        adapter.submit(table("a.txt", "b.txt").snapshot(), new int[0]);
+
+        assertThat(adapter.getItemCount(), is(0));
+        assertThat(observer.events, contains("removed 0 2"));
+    }
+
+    @Test
+    public void shouldDispatchOnlyTheChangedRows() throws Exception {
+        adapter.submit(table("a.txt", "b.txt", "c.txt").snapshot(), null);
+        observer.events.clear();
+
+        final FileTable changed = new FileTable();
+        changed.add("a", "a.txt", false, 1);
+        changed.add("b", "renamed.txt", false, 2);
+        changed.add("c", "c.txt", false, 3);
+        adapter.submit(changed.snapshot(), null);
+        diffExecutor.runAll();
+
+        assertThat(observer.events, is(empty()));
+        mainExecutor.runAll();
+        assertThat(observer.events, contains("changed 1 1"));
+    }
+
+    @Test
+    public void shouldCompareTheSizeAndTheFolderFlag() throws Exception {
+        adapter.submit(table("a.txt", "b.txt", "c.txt").snapshot(), null);
+        observer.events.clear();
+
+        final FileTable changed = new FileTable();
+        changed.add("a", "a.txt", false, 2048);
+        changed.add("b", "b.txt", false, 2);
+        changed.add("c", "c.txt", true, 3);
+        adapter.submit(changed.snapshot(), null);
+        diffExecutor.runAll();
+        mainExecutor.runAll();
+
+        assertThat(observer.events, contains("changed 0 1", "changed 2 1"));
+    }
+
+    @Test
+    public void shouldNotDispatchUnchangedRows() throws Exception {
+        adapter.submit(table("a.txt", "b.txt").snapshot(), null);
+        observer.events.clear();
+
+        adapter.submit(table("a.txt", "b.txt").snapshot(), null);
+        diffExecutor.runAll();
+        mainExecutor.runAll();
+
+        assertThat(observer.events, is(empty()));
+    }
+
+    @Test
+    public void shouldDiscardTheDiffOfAListReplacedBeforeItFinished() throws Exception {
+        adapter.submit(table("a.txt", "b.txt").snapshot(), null);
+        observer.events.clear();
+
+        adapter.submit(table("a.txt", "b.txt", "c.txt", "d.txt").snapshot(), null);
+        final FileTable latest = new FileTable();
+        latest.add("a", "renamed.txt", false, 1);
+        latest.add("b", "b.txt", false, 2);
+        adapter.submit(latest.snapshot(), null);
+        diffExecutor.runAll();
+        mainExecutor.runAll();
+
+        assertThat(observer.events, contains("changed 0 1"));
+        assertThat(adapter.getItemCount(), is(2));
+    }
+
+    /**
+     * @return a table with one file per name, with the ids "a", "b"... and the sizes 1, 2...
+     */
+    private static FileTable table(String... names) {
+        final FileTable table = new FileTable();
+        for (int i = 0; i < names.length; i++) {
+            table.add(String.valueOf((char) ('a' + i)), names[i], false, i + 1);
+        }
+        return table;
+    }
+
+    private static class QueueExecutor implements Executor {
+        final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(@NonNull Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            final List<Runnable> queued = new ArrayList<>(tasks);
+            tasks.clear();
+            for (Runnable task : queued) {
+                task.run();
+            }
+        }
+    }
+
+    private static class RecordingObserver extends RecyclerView.AdapterDataObserver {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            events.add("inserted " + positionStart + " " + itemCount);
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            events.add("removed " + positionStart + " " + itemCount);
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            events.add("changed " + positionStart + " " + itemCount);
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            events.add("moved " + fromPosition + " " + toPosition + " " + itemCount);
+        }
+    }
+}
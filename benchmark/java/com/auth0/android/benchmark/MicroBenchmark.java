@@ -0,0 +1,107 @@
+package com.auth0.android.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Minimal benchmark harness for the JVM. Runs an operation in timed batches after a warm up phase
+ * and reports the throughput, the per operation latency and the allocation rate.
+ * <p>
+ * The number of batches can be changed with the "benchmark.warmup" and "benchmark.batches" system properties.
+ * Shared by the benchmarks of every module, which add its source directory when built with -Pbenchmark.
+ */
+public final class MicroBenchmark {
+
+    /**
+     * The work to measure. Return a value that depends on the work so the JIT can't remove it.
+     */
+    public interface Operation {
+        Object run();
+    }
+
+    private static final int WARMUP_BATCHES = Integer.getInteger("benchmark.warmup", 50);
+    private static final int MEASURED_BATCHES = Integer.getInteger("benchmark.batches", 200);
+
+    private static volatile int sink;
+
+    private MicroBenchmark() {
+    }
+
+    /**
+     * Measures the given operation and prints the result.
+     *
+     * @param name               the name to report.
+     * @param operationsPerBatch how many times the operation runs between two clock reads.
+     * @param operation          the work to measure.
+     * @return the measured values.
+     */
+    public static Result run(String name, int operationsPerBatch, Operation operation) {
+        for (int i = 0; i < WARMUP_BATCHES; i++) {
+            runBatch(operationsPerBatch, operation);
+        }
+        final long[] batchNanos = new long[MEASURED_BATCHES];
+        final long allocatedBefore = allocatedBytes();
+        final long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_BATCHES; i++) {
+            final long batchStart = System.nanoTime();
+            runBatch(operationsPerBatch, operation);
+            batchNanos[i] = System.nanoTime() - batchStart;
+        }
+        final long elapsed = System.nanoTime() - start;
+        final long allocated = allocatedBytes() - allocatedBefore;
+
+        final long operations = (long) MEASURED_BATCHES * operationsPerBatch;
+        Arrays.sort(batchNanos);
+        final Result result = new Result(name,
+                operations * 1e9 / elapsed,
+                (double) batchNanos[MEASURED_BATCHES / 2] / operationsPerBatch,
+                (double) batchNanos[(int) (MEASURED_BATCHES * 0.99)] / operationsPerBatch,
+                allocated < 0 ? Double.NaN : (double) allocated / operations);
+        System.out.println(result);
+        return result;
+    }
+
+    private static void runBatch(int operationsPerBatch, Operation operation) {
+        int hash = 0;
+        for (int i = 0; i < operationsPerBatch; i++) {
+            final Object value = operation.run();
+            hash += value == null ? 0 : System.identityHashCode(value);
+        }
+        sink += hash;
+    }
+
+    /**
+     * @return the bytes allocated so far by the current thread, or -1 if the JVM can't tell.
+     */
+    private static long allocatedBytes() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    public static class Result {
+        public final String name;
+        public final double operationsPerSecond;
+        public final double p50Nanos;
+        public final double p99Nanos;
+        public final double bytesPerOperation;
+
+        private Result(String name, double operationsPerSecond, double p50Nanos, double p99Nanos, double bytesPerOperation) {
+            this.name = name;
+            this.operationsPerSecond = operationsPerSecond;
+            this.p50Nanos = p50Nanos;
+            this.p99Nanos = p99Nanos;
+            this.bytesPerOperation = bytesPerOperation;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "[benchmark] %-50s %,14.0f ops/s  p50 %,10.1f ns  p99 %,10.1f ns  %,10.1f B/op",
+                    name, operationsPerSecond, p50Nanos, p99Nanos, bytesPerOperation);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.auth0.android.google;
+
+import android.app.Activity;
+import android.support.annotation.NonNull;
+
+import com.auth0.android.Auth0;
+import com.auth0.android.Auth0Exception;
+import com.auth0.android.authentication.AuthenticationAPIClient;
+import com.auth0.android.authentication.AuthenticationException;
+import com.auth0.android.callback.BaseCallback;
+import com.auth0.android.request.AuthenticationRequest;
+import com.auth0.android.result.Credentials;
+import com.google.android.gms.auth.api.signin.GoogleSignInAccount;
+import com.google.android.gms.common.ConnectionResult;
+import com.google.android.gms.common.api.GoogleApiClient;
+import com.google.android.gms.common.api.Scope;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Fakes that replace Google Play Services and the Auth0 network calls in the benchmarks.
+ * They complete every call synchronously and don't allocate, so the measurements only include the library code.
+ */
+class BenchmarkFakes {
+
+    static final String SERVER_CLIENT_ID = "1234567890-abcdefghijklmnopqrstuvwxyz012345.apps.googleusercontent.com";
+    static final Credentials CREDENTIALS = new Credentials("idToken", "accessToken", "bearer", "refreshToken", 86400L);
+
+    private BenchmarkFakes() {
+    }
+
+    /**
+     * @return an Auth0 API client whose token exchange succeeds immediately with the same Credentials.
+     */
+    static AuthenticationAPIClient auth0Client() {
+        return new AuthenticationAPIClient(new Auth0("clientId", "domain.auth0.com")) {
+            private final AuthenticationRequest request = new ImmediateAuthenticationRequest();
+
+            @Override
+            public AuthenticationRequest loginWithOAuthAccessToken(String token, String connection) {
+                return request;
+            }
+        };
+    }
+
+    /**
+     * Creates a Google account stub. The stub only answers the configured calls and doesn't record them.
+     */
+    static GoogleSignInAccount account(String idToken, Set<Scope> grantedScopes) {
+        final GoogleSignInAccount account = mock(GoogleSignInAccount.class, withSettings().stubOnly());
+        when(account.getIdToken()).thenReturn(idToken);
+        when(account.getGrantedScopes()).thenReturn(grantedScopes);
+        return account;
+    }
+
+    /**
+     * Creates a GoogleAPI that builds the real sign in options but never talks to Google Play Services.
+     */
+    static GoogleAPI googleAPI(Activity activity, Scope[] scopes, GoogleCallback callback) {
+        return new FakeGoogleAPI(activity, scopes, callback);
+    }
+
+    static class FakeGoogleAPI extends GoogleAPI {
+        private static final GoogleApiClient CLIENT = mock(GoogleApiClient.class, withSettings().stubOnly());
+
+        FakeGoogleAPI(Activity activity, Scope[] scopes, GoogleCallback callback) {
+            super(activity, SERVER_CLIENT_ID, scopes, callback);
+        }
+
+        @Override
+        GoogleApiClient createGoogleAPIClient(String serverClientId, Scope[] scopes) {
+            createSignInOptions(serverClientId, scopes, false, null);
+            return CLIENT;
+        }
+
+        @Override
+        int isGooglePlayServicesAvailable() {
+            return ConnectionResult.SUCCESS;
+        }
+
+        @Override
+        void connectAndRequestGoogleAccount(int signInRequestCode, int errorResolutionRequestCode) {
+        }
+
+        @Override
+        boolean canBeReusedFor(@NonNull Activity activity, @NonNull String serverClientId, @NonNull Scope[] scopes, boolean requestServerAuthCode) {
+            return true;
+        }
+    }
+
+    /**
+     * A GoogleAuthProvider that uses a FakeGoogleAPI and keeps the last token listener, like GoogleAuthProviderMock.
+     */
+    static class FakeGoogleAuthProvider extends GoogleAuthProvider {
+        GoogleCallback googleCallback;
+
+        FakeGoogleAuthProvider(AuthenticationAPIClient client) {
+            super(SERVER_CLIENT_ID, client);
+        }
+
+        @Override
+        GoogleAPI createGoogleAPI(Activity activity, boolean rememberLastLogin) {
+            return googleAPI(activity, getScopes(), createTokenListener());
+        }
+
+        @Override
+        GoogleCallback createTokenListener() {
+            googleCallback = super.createTokenListener();
+            return googleCallback;
+        }
+    }
+
+    private static class ImmediateAuthenticationRequest implements AuthenticationRequest {
+
+        @Override
+        public void start(BaseCallback<Credentials, AuthenticationException> callback) {
+            callback.onSuccess(CREDENTIALS);
+        }
+
+        @Override
+        public Credentials execute() throws Auth0Exception {
+            return CREDENTIALS;
+        }
+
+        @Override
+        public AuthenticationRequest setGrantType(String grantType) {
+            return this;
+        }
+
+        @Override
+        public AuthenticationRequest setConnection(String connection) {
+            return this;
+        }
+
+        @Override
+        public AuthenticationRequest setRealm(String realm) {
+            return this;
+        }
+
+        @Override
+        public AuthenticationRequest setScope(String scope) {
+            return this;
+        }
+
+        @Override
+        public AuthenticationRequest setDevice(String device) {
+            return this;
+        }
+
+        @Override
+        public AuthenticationRequest setAudience(String audience) {
+            return this;
+        }
+
+        @Override
+        public AuthenticationRequest setAccessToken(String accessToken) {
+            return this;
+        }
+
+        @Override
+        public AuthenticationRequest addAuthenticationParameters(Map<String, Object> parameters) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.auth0.android.google;
+
+import android.app.Activity;
+import android.app.Dialog;
+
+import com.auth0.android.benchmark.MicroBenchmark;
+import com.google.android.gms.auth.api.signin.GoogleSignInAccount;
+import com.google.android.gms.common.Scopes;
+import com.google.android.gms.common.api.Scope;
+
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+public class GoogleAPIBenchmark {
+
+    private static final Scope[] ONE_SCOPE = new Scope[]{new Scope(Scopes.PLUS_LOGIN)};
+    private static final Scope[] FIVE_SCOPES = new Scope[]{new Scope(Scopes.PLUS_LOGIN), new Scope(Scopes.EMAIL), new Scope(Scopes.PROFILE),
+            new Scope("https://www.googleapis.com/auth/drive.metadata.readonly"), new Scope("https://www.googleapis.com/auth/calendar.readonly")};
+
+    private static final GoogleCallback NO_OP_CALLBACK = new GoogleCallback() {
+        @Override
+        public void onSuccess(GoogleSignInAccount account) {
+        }
+
+        @Override
+        public void onCancel() {
+        }
+
+        @Override
+        public void onError(Dialog errorDialog) {
+        }
+
+        @Override
+        public void onTimeout(GoogleAuthMetrics.Phase phase) {
+        }
+    };
+
+    @Test
+    public void createSignInOptions() throws Exception {
+        MicroBenchmark.run("GoogleAPI.createSignInOptions (1 scope)", 1000, new MicroBenchmark.Operation() {
+            @Override
+            public Object run() {
+                return GoogleAPI.createSignInOptions(BenchmarkFakes.SERVER_CLIENT_ID, ONE_SCOPE, false, null);
+            }
+        });
+        MicroBenchmark.run("GoogleAPI.createSignInOptions (5 scopes)", 1000, new MicroBenchmark.Operation() {
+            @Override
+            public Object run() {
+                return GoogleAPI.createSignInOptions(BenchmarkFakes.SERVER_CLIENT_ID, FIVE_SCOPES, false, null);
+            }
+        });
+    }
+
+    @Test
+    public void construction() throws Exception {
+        final Activity activity = mock(Activity.class, withSettings().stubOnly());
+
+        MicroBenchmark.run("new GoogleAPI (5 scopes, fake client)", 1000, new MicroBenchmark.Operation() {
+            @Override
+            public Object run() {
+                return BenchmarkFakes.googleAPI(activity, FIVE_SCOPES, NO_OP_CALLBACK);
+            }
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package com.auth0.android.google;
+
+import com.auth0.android.benchmark.MicroBenchmark;
+
+import org.junit.Test;
+
+public class GoogleAuthHandlerBenchmark {
+
+    @Test
+    public void providerFor() throws Exception {
+        final GoogleAuthHandler handler = new GoogleAuthHandler(BenchmarkFakes.auth0Client(), BenchmarkFakes.SERVER_CLIENT_ID);
+
+        MicroBenchmark.run("GoogleAuthHandler.providerFor (match)", 10000, new MicroBenchmark.Operation() {
+            @Override
+            public Object run() {
+                return handler.providerFor("google-oauth2", "google-oauth2");
+            }
+        });
+        final GoogleAuthHandler registry = new GoogleAuthHandler(BenchmarkFakes.auth0Client())
+                .addConnection("workspace", BenchmarkFakes.SERVER_CLIENT_ID)
+                .addConnection("consumer", BenchmarkFakes.SERVER_CLIENT_ID);
+        MicroBenchmark.run("GoogleAuthHandler.providerFor (registered connection)", 10000, new MicroBenchmark.Operation() {
+            @Override
+            public Object run() {
+                return registry.providerFor("google-oauth2", "consumer");
+            }
+        });
+        MicroBenchmark.run("GoogleAuthHandler.providerFor (no match)", 10000, new MicroBenchmark.Operation() {
+            @Override
+            public Object run() {
+                return handler.providerFor("facebook", "facebook");
+            }
+        });
+    }
+}
@@ -0,0 +1,128 @@
+package com.auth0.android.google;
+
+import android.app.Activity;
+import android.app.Dialog;
+import android.support.annotation.NonNull;
+
+import com.auth0.android.authentication.AuthenticationException;
+import com.auth0.android.benchmark.MicroBenchmark;
+import com.auth0.android.provider.AuthCallback;
+import com.auth0.android.result.Credentials;
+import com.google.android.gms.auth.api.signin.GoogleSignInAccount;
+import com.google.android.gms.common.Scopes;
+import com.google.android.gms.common.api.Scope;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+public class GoogleAuthProviderBenchmark {
+
+    private static final Scope[] ONE_SCOPE = new Scope[]{new Scope(Scopes.PLUS_LOGIN)};
+    private static final Scope[] FIVE_SCOPES = new Scope[]{new Scope(Scopes.PLUS_LOGIN), new Scope(Scopes.EMAIL), new Scope(Scopes.PROFILE),
+            new Scope("https://www.googleapis.com/auth/drive.metadata.readonly"), new Scope("https://www.googleapis.com/auth/calendar.readonly")};
+
+    private Activity activity;
+    private CountingCallback callback;
+
+    @Before
+    public void setUp() throws Exception {
+        activity = mock(Activity.class, withSettings().stubOnly());
+        callback = new CountingCallback();
+    }
+
+    @Test
+    public void fakeAccountBaseline() throws Exception {
+        final GoogleSignInAccount account = BenchmarkFakes.account("token", new HashSet<>(Arrays.asList(FIVE_SCOPES)));
+
+        // Cost of the account stub alone, to subtract from the token listener results.
+        MicroBenchmark.run("baseline: fake GoogleSignInAccount calls", 1000, new MicroBenchmark.Operation() {
+            @Override
+            public Object run() {
+                account.getGrantedScopes();
+                return account.getIdToken();
+            }
+        });
+    }
+
+    @Test
+    public void tokenListenerOnSuccess() throws Exception {
+        runTokenListener("createTokenListener().onSuccess (1 scope)", ONE_SCOPE);
+        runTokenListener("createTokenListener().onSuccess (5 scopes)", FIVE_SCOPES);
+    }
+
+    @Test
+    public void startToCallback() throws Exception {
+        final BenchmarkFakes.FakeGoogleAuthProvider provider = new BenchmarkFakes.FakeGoogleAuthProvider(BenchmarkFakes.auth0Client());
+        provider.setScopes(FIVE_SCOPES);
+        final GoogleSignInAccount account = BenchmarkFakes.account("token", new HashSet<>(Arrays.asList(FIVE_SCOPES)));
+
+        MicroBenchmark.run("start() to AuthCallback.onSuccess", 1000, new MicroBenchmark.Operation() {
+            @Override
+            public Object run() {
+                provider.start(activity, callback, 1, 2);
+                provider.googleCallback.onSuccess(account);
+                return callback.count;
+            }
+        });
+    }
+
+    @Test
+    public void callbackDispatchToJoinedCallers() throws Exception {
+        final BenchmarkFakes.FakeGoogleAuthProvider provider = new BenchmarkFakes.FakeGoogleAuthProvider(BenchmarkFakes.auth0Client());
+        final GoogleSignInAccount account = BenchmarkFakes.account("token", new HashSet<>(Arrays.asList(provider.getScopes())));
+        final AuthCallback second = new CountingCallback();
+        final AuthCallback third = new CountingCallback();
+
+        MicroBenchmark.run("start() x3 joined to AuthCallback.onSuccess", 1000, new MicroBenchmark.Operation() {
+            @Override
+            public Object run() {
+                provider.start(activity, callback, 1, 2);
+                provider.start(activity, second, 1, 2);
+                provider.start(activity, third, 1, 2);
+                provider.googleCallback.onSuccess(account);
+                return callback.count;
+            }
+        });
+    }
+
+    private void runTokenListener(String name, Scope[] scopes) {
+        final BenchmarkFakes.FakeGoogleAuthProvider provider = new BenchmarkFakes.FakeGoogleAuthProvider(BenchmarkFakes.auth0Client());
+        provider.setScopes(scopes);
+        provider.start(activity, callback, 1, 2);
+        final GoogleCallback listener = provider.googleCallback;
+        final GoogleSignInAccount account = BenchmarkFakes.account("token", new HashSet<>(Arrays.asList(scopes)));
+
+        MicroBenchmark.run(name, 1000, new MicroBenchmark.Operation() {
+            @Override
+            public Object run() {
+                listener.onSuccess(account);
+                return callback.count;
+            }
+        });
+    }
+
+    private static class CountingCallback implements AuthCallback {
+        int count;
+
+        @Override
+        public void onFailure(@NonNull Dialog dialog) {
+            count--;
+        }
+
+        @Override
+        public void onFailure(AuthenticationException exception) {
+            count--;
+        }
+
+        @Override
+        public void onSuccess(@NonNull Credentials credentials) {
+            count++;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.auth0.android.google;
+
+import com.auth0.android.benchmark.MicroBenchmark;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+public class IdTokenVerifierBenchmark {
+
+    private static final String AUDIENCE = "1234567890-abcdefghijklmnopqrstuvwxyz012345.apps.googleusercontent.com";
+
+    @Test
+    public void verifyTypicalGoogleIdToken() throws Exception {
+        final long expiration = System.currentTimeMillis() / 1000 + 3600;
+        final String payload = "{\"iss\":\"https://accounts.google.com\",\"azp\":\"1234567890-android.apps.googleusercontent.com\","
+                + "\"aud\":\"" + AUDIENCE + "\",\"sub\":\"110169484474386276334\",\"email\":\"john.doe@gmail.com\","
+                + "\"email_verified\":true,\"iat\":" + (expiration - 3600) + ",\"exp\":" + expiration + ","
+                + "\"name\":\"John Doe\",\"picture\":\"https://lh3.googleusercontent.com/a/photo.jpg\","
+                + "\"given_name\":\"John\",\"family_name\":\"Doe\",\"locale\":\"en\"}";
+        final String token = IdTokenVerifierTest.createToken(payload);
+        final IdTokenVerifier verifier = new IdTokenVerifier(AUDIENCE);
+        assertThat(verifier.verify(token), is(IdTokenVerifier.Result.VALID));
+
+        final MicroBenchmark.Result result = MicroBenchmark.run("IdTokenVerifier.verify", 1000, new MicroBenchmark.Operation() {
+            @Override
+            public Object run() {
+                return verifier.verify(token);
+            }
+        });
+
+        // The only allocation is the decoded payload buffer.
+        assertThat(result.bytesPerOperation, is(lessThan(2.0 * payload.length())));
+    }
+}
@@ -0,0 +1,113 @@
+package com.auth0.android.google;
+
+import android.app.Activity;
+import android.app.Dialog;
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import com.auth0.android.authentication.AuthenticationException;
+import com.auth0.android.provider.AuthCallback;
+import com.auth0.android.result.Credentials;
+import com.google.android.gms.common.ConnectionResult;
+import com.google.android.gms.common.api.GoogleApiClient;
+import com.google.android.gms.common.api.Scope;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures the heap left behind by repeated logins interrupted by configuration changes. The activities are checked
+ * for leaks by GoogleAPILeakTest, this one reports what else the cycles retain. The used heap depends on the JVM and
+ * its collector, so it's only measured here and not in the unit tests.
+ */
+public class LoginCycleHeapBenchmark {
+
+    private static final int WARMUP_CYCLES = 20;
+    private static final int CYCLES = 200;
+    private static final int ACTIVITY_SIZE_CHARS = 64 * 1024;
+    private static final long MAX_HEAP_GROWTH_BYTES = 8 * 1024 * 1024;
+
+    private static final AuthCallback NO_OP_CALLBACK = new AuthCallback() {
+        @Override
+        public void onFailure(@NonNull Dialog dialog) {
+        }
+
+        @Override
+        public void onFailure(AuthenticationException exception) {
+        }
+
+        @Override
+        public void onSuccess(@NonNull Credentials credentials) {
+        }
+    };
+
+    @Test
+    public void heapGrowthAcrossLoginCycles() throws Exception {
+        final Context applicationContext = mock(Context.class, withSettings().stubOnly());
+        final GoogleApiClient client = mock(GoogleApiClient.class, withSettings().stubOnly());
+        final GoogleAuthProvider provider = new GoogleAuthProvider(BenchmarkFakes.SERVER_CLIENT_ID, BenchmarkFakes.auth0Client()) {
+            @Override
+            GoogleAPI createGoogleAPI(Activity activity, boolean rememberLastLogin) {
+                return new GoogleAPI(activity, BenchmarkFakes.SERVER_CLIENT_ID, getScopes(), createTokenListener()) {
+                    @Override
+                    GoogleApiClient createGoogleAPIClient(String serverClientId, Scope[] scopes) {
+                        return client;
+                    }
+
+                    @Override
+                    int isGooglePlayServicesAvailable() {
+                        return ConnectionResult.SUCCESS;
+                    }
+                };
+            }
+        };
+        for (int i = 0; i < WARMUP_CYCLES; i++) {
+            startAndRotate(provider, applicationContext, i % 2 == 0);
+        }
+        final long baseline = usedHeap();
+
+        for (int i = 0; i < CYCLES; i++) {
+            startAndRotate(provider, applicationContext, i % 2 == 0);
+        }
+        final long growth = usedHeap() - baseline;
+
+        System.out.println(String.format(Locale.US, "[benchmark] %-50s %,14d B", "Heap growth after " + CYCLES + " login cycles", growth));
+        assertThat(growth, is(lessThan(MAX_HEAP_GROWTH_BYTES)));
+    }
+
+    /**
+     * Starts a login with a new activity, recreates the activity as a configuration change would and starts the login again.
+     */
+    private static void startAndRotate(GoogleAuthProvider provider, Context applicationContext, boolean stop) {
+        provider.start(createActivity(applicationContext), NO_OP_CALLBACK, 1, 2);
+        provider.start(createActivity(applicationContext), NO_OP_CALLBACK, 1, 2);
+        if (stop) {
+            provider.stop();
+        }
+    }
+
+    private static Activity createActivity(Context applicationContext) {
+        final Activity activity = mock(Activity.class, withSettings().stubOnly());
+        when(activity.getApplicationContext()).thenReturn(applicationContext);
+        // Stands for the view hierarchy and resources an Activity holds.
+        when(activity.getPackageName()).thenReturn(new String(new char[ACTIVITY_SIZE_CHARS]));
+        return activity;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
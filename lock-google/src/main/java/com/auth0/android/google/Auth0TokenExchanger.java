@@ -0,0 +1,33 @@
+package com.auth0.android.google;
+
+import android.support.annotation.NonNull;
+
+import com.auth0.android.authentication.AuthenticationAPIClient;
+import com.auth0.android.callback.AuthenticationCallback;
+import com.auth0.android.result.Credentials;
+import com.google.android.gms.auth.api.signin.GoogleSignInAccount;
+
+import java.util.Map;
+
+/**
+ * Default GoogleTokenExchanger. Exchanges the Google ID token for Auth0 Credentials from the device,
+ * using the Auth0 Authentication API.
+ */
+public class Auth0TokenExchanger implements GoogleTokenExchanger {
+
+    private final AuthenticationAPIClient client;
+
+    /**
+     * @param client an Auth0 AuthenticationAPIClient instance
+     */
+    public Auth0TokenExchanger(@NonNull AuthenticationAPIClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public void exchange(@NonNull GoogleSignInAccount account, @NonNull String connectionName, @NonNull Map<String, Object> parameters, @NonNull AuthenticationCallback<Credentials> callback) {
+        client.loginWithOAuthAccessToken(account.getIdToken(), connectionName)
+                .addAuthenticationParameters(parameters)
+                .start(callback);
+    }
+}
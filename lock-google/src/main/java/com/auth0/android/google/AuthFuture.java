@@ -0,0 +1,371 @@
+package com.auth0.android.google;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Result of an asynchronous operation that can be observed with callbacks, chained with other operations or waited for.
+ * It's completed once, with a value, an error or a cancellation. Callbacks added after that run right away.
+ * <p>
+ * Avoid calling {@link #get()} on the main thread while waiting for a login: the login needs the main thread to finish.
+ *
+ * @param <T> the type of the result.
+ */
+public class AuthFuture<T> implements Future<T> {
+
+    /**
+     * Executor that runs the tasks on the thread that completes the future.
+     */
+    public static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(@NonNull Runnable command) {
+            command.run();
+        }
+    };
+
+    public interface Callback<T> {
+        /**
+         * Called when the future completes with a value.
+         *
+         * @param result the value of the future.
+         */
+        void onSuccess(@Nullable T result);
+
+        /**
+         * Called when the future fails or is canceled. A canceled future fails with a {@link CancellationException}.
+         *
+         * @param error the reason of the failure.
+         */
+        void onFailure(@NonNull Throwable error);
+    }
+
+    public interface Transformation<T, R> {
+        /**
+         * Transforms the value of a future into the value of the next one. Throw to fail the next future.
+         *
+         * @param result the value of the previous future.
+         * @return the value of the next future.
+         */
+        R apply(@Nullable T result) throws Exception;
+    }
+
+    public interface AsyncTransformation<T, R> {
+        /**
+         * Starts the operation that follows the previous future. Throw to fail the next future.
+         *
+         * @param result the value of the previous future.
+         * @return the future of the following operation.
+         */
+        @NonNull
+        AuthFuture<R> apply(@Nullable T result) throws Exception;
+    }
+
+    private static final int PENDING = 0;
+    private static final int SUCCEEDED = 1;
+    private static final int FAILED = 2;
+    private static final int CANCELED = 3;
+
+    private final List<Runnable> listeners = new ArrayList<>();
+    private int state = PENDING;
+    private T result;
+    private Throwable error;
+
+    /**
+     * Completes the future with the given value, unless it's already done.
+     *
+     * @param result the value of the future.
+     * @return true if the future was completed by this call.
+     */
+    public boolean complete(@Nullable T result) {
+        synchronized (this) {
+            if (state != PENDING) {
+                return false;
+            }
+            this.result = result;
+            state = SUCCEEDED;
+        }
+        finish();
+        return true;
+    }
+
+    /**
+     * Fails the future with the given error, unless it's already done.
+     *
+     * @param error the reason of the failure.
+     * @return true if the future was failed by this call.
+     */
+    public boolean fail(@NonNull Throwable error) {
+        synchronized (this) {
+            if (state != PENDING) {
+                return false;
+            }
+            this.error = error;
+            state = FAILED;
+        }
+        finish();
+        return true;
+    }
+
+    /**
+     * Cancels the future, unless it's already done. The operation behind it is abandoned and the futures chained to it are canceled too.
+     *
+     * @param mayInterruptIfRunning ignored, the operations are never interrupted.
+     * @return true if the future was canceled by this call.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        synchronized (this) {
+            if (state != PENDING) {
+                return false;
+            }
+            this.error = new CancellationException("The operation was canceled.");
+            state = CANCELED;
+        }
+        finish();
+        return true;
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return state == CANCELED;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return state != PENDING;
+    }
+
+    @Override
+    public synchronized T get() throws InterruptedException, ExecutionException {
+        while (state == PENDING) {
+            wait();
+        }
+        return getResult();
+    }
+
+    @Override
+    public synchronized T get(long timeout, @NonNull TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        final long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+        while (state == PENDING) {
+            final long remainingNanos = deadlineNanos - System.nanoTime();
+            if (remainingNanos <= 0) {
+                throw new TimeoutException("The operation didn't finish in time.");
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+        }
+        return getResult();
+    }
+
+    /**
+     * Adds a callback that runs on the thread that completes the future, or right away if it's already done.
+     *
+     * @param callback the callback to notify.
+     */
+    public void addCallback(@NonNull Callback<? super T> callback) {
+        addCallback(callback, DIRECT_EXECUTOR);
+    }
+
+    /**
+     * Adds a callback that runs on the given executor once the future is done.
+     *
+     * @param callback the callback to notify.
+     * @param executor the executor to run the callback on.
+     */
+    public void addCallback(@NonNull final Callback<? super T> callback, @NonNull final Executor executor) {
+        final Runnable listener = new Runnable() {
+            @Override
+            public void run() {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        deliverTo(callback);
+                    }
+                });
+            }
+        };
+        synchronized (this) {
+            if (state == PENDING) {
+                listeners.add(listener);
+                return;
+            }
+        }
+        listener.run();
+    }
+
+    /**
+     * Chains a synchronous operation to this future. The transformation runs on the thread that completes this future.
+     *
+     * @param transformation the operation to run with the value of this future.
+     * @param <R>            the type of the next result.
+     * @return the future of the transformed value.
+     */
+    @NonNull
+    public <R> AuthFuture<R> transform(@NonNull Transformation<? super T, ? extends R> transformation) {
+        return transform(transformation, DIRECT_EXECUTOR);
+    }
+
+    /**
+     * Chains a synchronous operation to this future. If this future fails, the returned one fails with the same error.
+     * Canceling the returned future cancels this one.
+     *
+     * @param transformation the operation to run with the value of this future.
+     * @param executor       the executor to run the transformation on.
+     * @param <R>            the type of the next result.
+     * @return the future of the transformed value.
+     */
+    @NonNull
+    public <R> AuthFuture<R> transform(@NonNull final Transformation<? super T, ? extends R> transformation, @NonNull Executor executor) {
+        final AuthFuture<R> next = new AuthFuture<>();
+        propagateCancellation(next, this);
+        addCallback(new Callback<T>() {
+            @Override
+            public void onSuccess(@Nullable T result) {
+                if (next.isDone()) {
+                    return;
+                }
+                try {
+                    next.complete(transformation.apply(result));
+                } catch (Exception e) {
+                    next.fail(e);
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Throwable error) {
+                next.failWith(error);
+            }
+        }, executor);
+        return next;
+    }
+
+    /**
+     * Chains an asynchronous operation to this future. The transformation runs on the thread that completes this future.
+     *
+     * @param transformation the operation to start with the value of this future.
+     * @param <R>            the type of the next result.
+     * @return the future of the chained operation.
+     */
+    @NonNull
+    public <R> AuthFuture<R> transformAsync(@NonNull AsyncTransformation<? super T, R> transformation) {
+        return transformAsync(transformation, DIRECT_EXECUTOR);
+    }
+
+    /**
+     * Chains an asynchronous operation to this future, for example a request that needs the obtained Credentials.
+     * If this future fails, the returned one fails with the same error. Canceling the returned future cancels this one
+     * and the chained operation.
+     *
+     * @param transformation the operation to start with the value of this future.
+     * @param executor       the executor to run the transformation on.
+     * @param <R>            the type of the next result.
+     * @return the future of the chained operation.
+     */
+    @NonNull
+    public <R> AuthFuture<R> transformAsync(@NonNull final AsyncTransformation<? super T, R> transformation, @NonNull Executor executor) {
+        final AuthFuture<R> next = new AuthFuture<>();
+        propagateCancellation(next, this);
+        addCallback(new Callback<T>() {
+            @Override
+            public void onSuccess(@Nullable T result) {
+                if (next.isDone()) {
+                    return;
+                }
+                final AuthFuture<R> chained;
+                try {
+                    chained = transformation.apply(result);
+                } catch (Exception e) {
+                    next.fail(e);
+                    return;
+                }
+                propagateCancellation(next, chained);
+                chained.addCallback(new Callback<R>() {
+                    @Override
+                    public void onSuccess(@Nullable R result) {
+                        next.complete(result);
+                    }
+
+                    @Override
+                    public void onFailure(@NonNull Throwable error) {
+                        next.failWith(error);
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(@NonNull Throwable error) {
+                next.failWith(error);
+            }
+        }, executor);
+        return next;
+    }
+
+    private static void propagateCancellation(AuthFuture<?> from, final AuthFuture<?> to) {
+        from.addCallback(new Callback<Object>() {
+            @Override
+            public void onSuccess(@Nullable Object result) {
+            }
+
+            @Override
+            public void onFailure(@NonNull Throwable error) {
+                if (error instanceof CancellationException) {
+                    to.cancel(false);
+                }
+            }
+        });
+    }
+
+    private void failWith(Throwable error) {
+        if (error instanceof CancellationException) {
+            cancel(false);
+        } else {
+            fail(error);
+        }
+    }
+
+    private void finish() {
+        final List<Runnable> listeners;
+        synchronized (this) {
+            notifyAll();
+            listeners = new ArrayList<>(this.listeners);
+            this.listeners.clear();
+        }
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    private void deliverTo(Callback<? super T> callback) {
+        final int state;
+        final T result;
+        final Throwable error;
+        synchronized (this) {
+            state = this.state;
+            result = this.result;
+            error = this.error;
+        }
+        if (state == SUCCEEDED) {
+            callback.onSuccess(result);
+        } else {
+            callback.onFailure(error);
+        }
+    }
+
+    private T getResult() throws ExecutionException {
+        if (state == SUCCEEDED) {
+            return result;
+        }
+        if (state == CANCELED) {
+            throw (CancellationException) error;
+        }
+        throw new ExecutionException(error);
+    }
+}
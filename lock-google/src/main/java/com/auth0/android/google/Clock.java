@@ -0,0 +1,29 @@
+package com.auth0.android.google;
+
+/**
+ * Source of time. Replaced in tests to control time based behavior.
+ */
+interface Clock {
+
+    Clock SYSTEM = new Clock() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+    };
+
+    /**
+     * @return the current value of a monotonic time source, in nanoseconds.
+     */
+    long nanoTime();
+
+    /**
+     * @return the current wall clock time, in milliseconds since the epoch.
+     */
+    long currentTimeMillis();
+}
@@ -0,0 +1,157 @@
+package com.auth0.android.google;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.auth0.android.result.Credentials;
+import com.google.android.gms.common.api.Scope;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory cache of the Credentials obtained when exchanging a Google token with Auth0.
+ * Entries are keyed by Google account, connection, scopes and authentication parameters, and are kept
+ * until the Credentials are about to expire or the time to live elapses, whichever happens first.
+ * When the cache is full the least recently used entry is evicted.
+ * <p>
+ * The cached Credentials are returned with the lifetime they have left, so their "expires_in" value is never older than the lookup.
+ */
+public class CredentialsCache {
+
+    /**
+     * Credentials expiring in less than this amount of time are not returned from the cache.
+     */
+    static final long EXPIRATION_LEEWAY_MS = TimeUnit.SECONDS.toMillis(60);
+
+    private final ExpiringLruCache<String, Entry> cache;
+    private final Clock clock;
+    private final long ttlMillis;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize   the maximum number of Credentials to keep.
+     * @param ttlMillis the maximum time in milliseconds to keep Credentials, regardless of their expiration.
+     */
+    public CredentialsCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, Clock.SYSTEM);
+    }
+
+    CredentialsCache(int maxSize, long ttlMillis, @NonNull Clock clock) {
+        this.cache = new ExpiringLruCache<>(maxSize, clock);
+        this.clock = clock;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Removes all the cached Credentials. Call it when the user logs out.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * @return the number of Credentials currently cached.
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * @return the number of lookups that returned cached Credentials.
+     */
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * @return the number of lookups that didn't find valid cached Credentials.
+     */
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * @return the number of Credentials removed to make room for new ones.
+     */
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    /**
+     * @return the number of Credentials removed because they expired.
+     */
+    public long getExpirationCount() {
+        return cache.getExpirationCount();
+    }
+
+    /**
+     * @return the cached Credentials, with their expiration updated to the time they have left, or null if there are none.
+     */
+    @Nullable
+    Credentials get(@NonNull String key) {
+        final Entry entry = cache.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis == -1) {
+            return entry.credentials;
+        }
+        // Checked against the wall clock too, as the time to live of the entry doesn't count the time the device spent asleep.
+        final long remainingMillis = entry.expiresAtMillis - clock.currentTimeMillis();
+        if (remainingMillis <= EXPIRATION_LEEWAY_MS) {
+            cache.expire(key);
+            return null;
+        }
+        final Credentials credentials = entry.credentials;
+        return new Credentials(credentials.getIdToken(), credentials.getAccessToken(), credentials.getType(), credentials.getRefreshToken(),
+                TimeUnit.MILLISECONDS.toSeconds(remainingMillis));
+    }
+
+    void put(@NonNull String key, @NonNull Credentials credentials) {
+        long lifetime = ttlMillis;
+        long expiresAtMillis = -1;
+        final Long expiresIn = credentials.getExpiresIn();
+        if (expiresIn != null) {
+            final long expiresInMillis = TimeUnit.SECONDS.toMillis(expiresIn);
+            lifetime = Math.min(lifetime, expiresInMillis - EXPIRATION_LEEWAY_MS);
+            expiresAtMillis = clock.currentTimeMillis() + expiresInMillis;
+        }
+        cache.put(key, new Entry(credentials, expiresAtMillis), lifetime);
+    }
+
+    /**
+     * Creates the cache key for an exchange. The order of the scopes and parameters doesn't change the key.
+     *
+     * @param accountId  the Google account id.
+     * @param connection the Auth0 connection name.
+     * @param scopes     the requested Google scopes.
+     * @param parameters the authentication parameters sent to Auth0.
+     * @return the key to use in get() and put().
+     */
+    @NonNull
+    static String keyFor(@NonNull String accountId, @NonNull String connection, @NonNull Scope[] scopes, @NonNull Map<String, Object> parameters) {
+        final String[] scopeUris = new String[scopes.length];
+        for (int i = 0; i < scopes.length; i++) {
+            scopeUris[i] = scopes[i].toString();
+        }
+        Arrays.sort(scopeUris);
+        return accountId + '\n' + connection + '\n' + Arrays.toString(scopeUris) + '\n' + new TreeMap<>(parameters);
+    }
+
+    private static class Entry {
+        final Credentials credentials;
+        /**
+         * The wall clock time the Credentials expire at, in milliseconds since the epoch, or -1 if they don't expire.
+         */
+        final long expiresAtMillis;
+
+        Entry(Credentials credentials, long expiresAtMillis) {
+            this.credentials = credentials;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
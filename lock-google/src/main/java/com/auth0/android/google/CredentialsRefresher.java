@@ -0,0 +1,309 @@
+package com.auth0.android.google;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import com.auth0.android.authentication.AuthenticationAPIClient;
+import com.auth0.android.authentication.AuthenticationException;
+import com.auth0.android.callback.AuthenticationCallback;
+import com.auth0.android.result.Credentials;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renews the Credentials issued by a GoogleAuthProvider in the background, before they expire, using their Auth0 refresh token.
+ * Only Credentials that include a refresh token are tracked, so request the "offline_access" scope in the provider parameters.
+ * <p>
+ * Each Credentials is refreshed at a random time within the jitter before the refresh leeway, so that many clients
+ * don't renew at once. Refreshes that are due within the batch window of each other run together, on a single wake up.
+ * <p>
+ * The refreshes are only scheduled while the process is alive. With the default scheduler the delays are measured in uptime,
+ * which doesn't advance while the device is in deep sleep, so a scheduled refresh can run after the Credentials expired.
+ * Call refreshIfDue() when the app comes back to the foreground to renew right away the Credentials whose refresh time
+ * already passed by the wall clock. The GoogleAuthProvider also does it every time a login starts.
+ */
+public class CredentialsRefresher {
+
+    private static final String TAG = CredentialsRefresher.class.getSimpleName();
+    static final long DEFAULT_REFRESH_LEEWAY_MS = TimeUnit.MINUTES.toMillis(5);
+    static final long DEFAULT_JITTER_MS = TimeUnit.MINUTES.toMillis(1);
+    static final long DEFAULT_BATCH_WINDOW_MS = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * Listener notified of the result of every background refresh.
+     * Calls happen on the thread that delivered the Auth0 response.
+     */
+    public interface Listener {
+
+        /**
+         * Called when tracked Credentials were renewed.
+         *
+         * @param credentials the new Credentials. They are tracked in place of the previous ones.
+         */
+        void onCredentialsRefreshed(@NonNull Credentials credentials);
+
+        /**
+         * Called when tracked Credentials couldn't be renewed. They are no longer tracked.
+         *
+         * @param credentials the Credentials that couldn't be renewed.
+         * @param error       the cause of the failure.
+         */
+        void onRefreshFailed(@NonNull Credentials credentials, @NonNull AuthenticationException error);
+    }
+
+    private final AuthenticationAPIClient client;
+    private final Scheduler scheduler;
+    private final Random random;
+    private final Clock clock;
+    private final Map<String, Entry> entries;
+    private final Runnable refreshTask;
+    private long refreshLeewayMillis;
+    private long jitterMillis;
+    private long batchWindowMillis;
+    private Listener listener;
+    private long scheduledAt;
+
+    /**
+     * Creates a new refresher that runs on the main thread.
+     *
+     * @param client an Auth0 AuthenticationAPIClient instance
+     */
+    public CredentialsRefresher(@NonNull AuthenticationAPIClient client) {
+        this(client, new HandlerScheduler());
+    }
+
+    /**
+     * Creates a new refresher that runs on the given scheduler.
+     *
+     * @param client    an Auth0 AuthenticationAPIClient instance
+     * @param scheduler the scheduler to run the refreshes with.
+     */
+    public CredentialsRefresher(@NonNull AuthenticationAPIClient client, @NonNull Scheduler scheduler) {
+        this(client, scheduler, new Random());
+    }
+
+    CredentialsRefresher(@NonNull AuthenticationAPIClient client, @NonNull Scheduler scheduler, @NonNull Random random) {
+        this(client, scheduler, random, Clock.SYSTEM);
+    }
+
+    CredentialsRefresher(@NonNull AuthenticationAPIClient client, @NonNull Scheduler scheduler, @NonNull Random random, @NonNull Clock clock) {
+        this.client = client;
+        this.scheduler = scheduler;
+        this.random = random;
+        this.clock = clock;
+        this.entries = new HashMap<>();
+        this.refreshLeewayMillis = DEFAULT_REFRESH_LEEWAY_MS;
+        this.jitterMillis = DEFAULT_JITTER_MS;
+        this.batchWindowMillis = DEFAULT_BATCH_WINDOW_MS;
+        this.scheduledAt = -1;
+        this.refreshTask = new Runnable() {
+            @Override
+            public void run() {
+                refreshDueCredentials(true);
+            }
+        };
+    }
+
+    /**
+     * Sets how long before the expiration the Credentials should be refreshed. By default it's 5 minutes.
+     * Applies to the Credentials tracked after this call.
+     *
+     * @param refreshLeewayMillis the time before the expiration, in milliseconds.
+     */
+    public void setRefreshLeeway(long refreshLeewayMillis) {
+        this.refreshLeewayMillis = refreshLeewayMillis;
+    }
+
+    /**
+     * Sets the maximum random time to move each refresh ahead, to spread the refreshes. By default it's 1 minute.
+     * Applies to the Credentials tracked after this call.
+     *
+     * @param jitterMillis the maximum time, in milliseconds. Use 0 to disable the jitter.
+     */
+    public void setJitter(long jitterMillis) {
+        this.jitterMillis = jitterMillis;
+    }
+
+    /**
+     * Sets the time window in which due refreshes are run together. By default it's 1 minute.
+     *
+     * @param batchWindowMillis the window length, in milliseconds. Use 0 to run each refresh at its own time.
+     */
+    public void setBatchWindow(long batchWindowMillis) {
+        this.batchWindowMillis = batchWindowMillis;
+    }
+
+    /**
+     * Sets the listener to notify of the refresh results.
+     *
+     * @param listener the listener to notify, or null to stop notifying.
+     */
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Stops tracking all the Credentials and cancels the pending refresh. Call it when the user logs out.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        scheduler.cancel(refreshTask);
+        scheduledAt = -1;
+    }
+
+    /**
+     * Refreshes right away the tracked Credentials whose refresh time passed, checking it against the wall clock too.
+     * The scheduled refresh doesn't run while the device is asleep, so call it when the app comes back to the foreground,
+     * for example from Activity.onStart().
+     */
+    public void refreshIfDue() {
+        refreshDueCredentials(false);
+    }
+
+    /**
+     * @return the number of Credentials currently tracked.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Starts tracking the given Credentials, replacing any previously tracked under the same key.
+     * Credentials without a refresh token or an expiration are ignored.
+     *
+     * @param key         identifies the login the Credentials belong to.
+     * @param credentials the Credentials to refresh.
+     * @param cache       the cache to update with the refreshed Credentials, if any.
+     */
+    synchronized void track(@NonNull String key, @NonNull Credentials credentials, @Nullable CredentialsCache cache) {
+        final Long expiresIn = credentials.getExpiresIn();
+        if (credentials.getRefreshToken() == null || expiresIn == null) {
+            Log.v(TAG, "Credentials without a refresh token or expiration can't be refreshed");
+            entries.remove(key);
+            return;
+        }
+        final long now = scheduler.now();
+        final long lifetime = TimeUnit.SECONDS.toMillis(expiresIn);
+        final long jitter = jitterMillis > 0 ? (long) (random.nextDouble() * jitterMillis) : 0;
+        // Short lived Credentials are refreshed halfway through their lifetime, to avoid refreshing them continuously.
+        final long refreshDelay = lifetime - Math.min(refreshLeewayMillis + jitter, lifetime / 2);
+        entries.put(key, new Entry(key, credentials, now + refreshDelay, clock.currentTimeMillis() + refreshDelay, cache));
+        scheduleNextRefresh();
+    }
+
+    /**
+     * @param scheduled whether it's called by the scheduled task, which is no longer pending.
+     */
+    private void refreshDueCredentials(boolean scheduled) {
+        final List<Entry> dueEntries = new ArrayList<>();
+        synchronized (this) {
+            if (scheduled) {
+                scheduledAt = -1;
+            }
+            final long batchEnd = scheduler.now() + batchWindowMillis;
+            final long wallClockBatchEnd = clock.currentTimeMillis() + batchWindowMillis;
+            for (Entry entry : entries.values()) {
+                if (!entry.refreshing && (entry.refreshAt <= batchEnd || entry.refreshAtWallClock <= wallClockBatchEnd)) {
+                    entry.refreshing = true;
+                    dueEntries.add(entry);
+                }
+            }
+            scheduleNextRefresh();
+        }
+        if (dueEntries.isEmpty()) {
+            return;
+        }
+        Log.v(TAG, "Refreshing " + dueEntries.size() + " Credentials");
+        for (Entry entry : dueEntries) {
+            refresh(entry);
+        }
+    }
+
+    private void refresh(final Entry entry) {
+        client.renewAuth(entry.credentials.getRefreshToken())
+                .start(new AuthenticationCallback<Credentials>() {
+                    @Override
+                    public void onSuccess(Credentials renewed) {
+                        // The refresh token is not always rotated, keep the previous one in that case.
+                        final Credentials credentials = renewed.getRefreshToken() != null ? renewed :
+                                new Credentials(renewed.getIdToken(), renewed.getAccessToken(), renewed.getType(), entry.credentials.getRefreshToken(), renewed.getExpiresIn());
+                        synchronized (CredentialsRefresher.this) {
+                            if (entries.get(entry.key) != entry) {
+                                Log.v(TAG, "Credentials were untracked while refreshing. Ignoring the result.");
+                                return;
+                            }
+                            track(entry.key, credentials, entry.cache);
+                        }
+                        if (entry.cache != null) {
+                            entry.cache.put(entry.key, credentials);
+                        }
+                        final Listener listener = CredentialsRefresher.this.listener;
+                        if (listener != null) {
+                            listener.onCredentialsRefreshed(credentials);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(AuthenticationException error) {
+                        Log.w(TAG, "Couldn't refresh the Credentials", error);
+                        synchronized (CredentialsRefresher.this) {
+                            if (entries.get(entry.key) != entry) {
+                                return;
+                            }
+                            entries.remove(entry.key);
+                        }
+                        final Listener listener = CredentialsRefresher.this.listener;
+                        if (listener != null) {
+                            listener.onRefreshFailed(entry.credentials, error);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Schedules a single wake up for the earliest pending refresh. Must be called holding the lock.
+     */
+    private void scheduleNextRefresh() {
+        long nextRefreshAt = -1;
+        for (Entry entry : entries.values()) {
+            if (!entry.refreshing && (nextRefreshAt == -1 || entry.refreshAt < nextRefreshAt)) {
+                nextRefreshAt = entry.refreshAt;
+            }
+        }
+        if (nextRefreshAt == scheduledAt) {
+            return;
+        }
+        scheduledAt = nextRefreshAt;
+        if (nextRefreshAt == -1) {
+            scheduler.cancel(refreshTask);
+            return;
+        }
+        scheduler.schedule(refreshTask, Math.max(0, nextRefreshAt - scheduler.now()));
+    }
+
+    private static class Entry {
+        final String key;
+        final Credentials credentials;
+        final long refreshAt;
+        /**
+         * The refresh time by the wall clock, in milliseconds since the epoch.
+         */
+        final long refreshAtWallClock;
+        final CredentialsCache cache;
+        boolean refreshing;
+
+        Entry(String key, Credentials credentials, long refreshAt, long refreshAtWallClock, CredentialsCache cache) {
+            this.key = key;
+            this.credentials = credentials;
+            this.refreshAt = refreshAt;
+            this.refreshAtWallClock = refreshAtWallClock;
+            this.cache = cache;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.auth0.android.google;
+
+import android.app.Dialog;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.auth0.android.authentication.AuthenticationException;
+
+/**
+ * Failure of a login started with {@link GoogleAuthProvider#startAsync(android.app.Activity, int, int)} that must be
+ * resolved by the user, usually because the Google Play Services are missing or outdated. Show the dialog to let the user fix it.
+ * The code tells the cause apart, {@link GoogleAuthProvider#ERROR_CODE_PLAY_SERVICES} or {@link GoogleAuthProvider#ERROR_CODE_CONNECTION}.
+ * The dialog isn't serialized, it's null once the exception is deserialized.
+ */
+public class ErrorDialogException extends AuthenticationException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Dialog dialog;
+
+    ErrorDialogException(@NonNull String code, @NonNull String description, @Nullable Dialog dialog) {
+        super(code, description);
+        this.dialog = dialog;
+    }
+
+    /**
+     * Getter for the dialog that resolves the error.
+     *
+     * @return the dialog to show, or null if the activity that started the login is gone or the exception was deserialized.
+     */
+    @Nullable
+    public Dialog getDialog() {
+        return dialog;
+    }
+}
@@ -0,0 +1,126 @@
+package com.auth0.android.google;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Size bounded in-memory cache that evicts the least recently used entry when full and
+ * drops the entries whose time to live has elapsed.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+class ExpiringLruCache<K, V> {
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final int maxSize;
+    private final Clock clock;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    ExpiringLruCache(int maxSize, @NonNull Clock clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The cache size must be greater than 0");
+        }
+        this.maxSize = maxSize;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    @Nullable
+    synchronized V get(@NonNull K key) {
+        final Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.expiresAt - clock.nanoTime() <= 0) {
+            entries.remove(key);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    synchronized void put(@NonNull K key, @NonNull V value, long ttlMillis) {
+        if (ttlMillis <= 0) {
+            entries.remove(key);
+            return;
+        }
+        entries.put(key, new Entry<>(value, clock.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMillis)));
+        trimToSize();
+    }
+
+    synchronized void remove(@NonNull K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes an entry the caller found expired right after getting it. That lookup is counted as a miss instead of a hit.
+     */
+    synchronized void expire(@NonNull K key) {
+        if (entries.remove(key) != null) {
+            hits--;
+            misses++;
+            expirations++;
+        }
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long getHitCount() {
+        return hits;
+    }
+
+    synchronized long getMissCount() {
+        return misses;
+    }
+
+    synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    synchronized long getExpirationCount() {
+        return expirations;
+    }
+
+    private void trimToSize() {
+        final long now = clock.nanoTime();
+        final Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && entries.size() > maxSize) {
+            final Entry<V> entry = iterator.next().getValue();
+            iterator.remove();
+            if (entry.expiresAt - now <= 0) {
+                expirations++;
+            } else {
+                evictions++;
+            }
+        }
+    }
+
+    private static class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.auth0.android.google;
 
 import android.app.Activity;
 import android.app.Dialog;
+import android.content.Context;
 import android.content.DialogInterface;
 import android.content.Intent;
 import android.content.IntentSender;
@@ -10,30 +11,58 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.util.Log;
 
+import com.auth0.android.google.GoogleAuthMetrics.Outcome;
+import com.auth0.android.google.GoogleAuthMetrics.Phase;
 import com.google.android.gms.auth.api.Auth;
 import com.google.android.gms.auth.api.signin.GoogleSignInOptions;
 import com.google.android.gms.auth.api.signin.GoogleSignInResult;
 import com.google.android.gms.common.ConnectionResult;
 import com.google.android.gms.common.GoogleApiAvailability;
 import com.google.android.gms.common.api.GoogleApiClient;
+import com.google.android.gms.common.api.OptionalPendingResult;
 import com.google.android.gms.common.api.ResultCallback;
 import com.google.android.gms.common.api.Scope;
 import com.google.android.gms.common.api.Status;
 
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
 /**
  * Helper class to wrap all the GoogleApiClient and GoogleApiAvailability calls.
+ * The GoogleApiClient is bound to the Application context. The Activity is only borrowed to launch the sign in
+ * and error resolution Intents, and is kept through a weak reference so this helper never leaks it.
  */
 class GoogleAPI implements GoogleApiClient.ConnectionCallbacks, GoogleApiClient.OnConnectionFailedListener {
 
     private static final String TAG = GoogleAPI.class.getSimpleName();
-    private Activity activity;
+    private final Context context;
+    private final WeakReference<Activity> activityRef;
     private final GoogleCallback googleCallback;
+    private final String serverClientId;
+    private final Scope[] scopes;
+    private final boolean requestServerAuthCode;
 
     private GoogleApiClient client;
+    private GoogleApiClient scopesClient;
     private boolean resolvingError;
+    private boolean accountRequested;
     private int signInRequestCode;
     private int errorResolutionRequestCode;
     private boolean rememberLastLogin;
+    private boolean silentSignIn;
+    private boolean signOutPending;
+    private boolean signingOut;
+    private boolean signedOut;
+    private boolean signInAfterSignOut;
+    private GoogleAuthMetrics metrics;
+    private long connectionStartNanos;
+    private long errorResolutionStartNanos;
+    private long signInStartNanos;
+    private long scopeRequestStartNanos;
+    private Scheduler scheduler;
+    private long connectionTimeoutMillis;
+    private long signInTimeoutMillis;
+    private Runnable phaseTimeout;
 
     /**
      * @param activity       a valid activity context to use
@@ -42,9 +71,24 @@ class GoogleAPI implements GoogleApiClient.ConnectionCallbacks, GoogleApiClient.
      * @param googleCallback to notify token reception and occurred errors.
      */
     GoogleAPI(@NonNull Activity activity, @NonNull String serverClientId, @NonNull Scope[] scopes, @NonNull GoogleCallback googleCallback) {
-        this.activity = activity;
+        this(activity, serverClientId, scopes, false, googleCallback);
+    }
+
+    /**
+     * @param activity              a valid activity context to use
+     * @param serverClientId        the OAuth 2.0 server client id obtained when creating a new credential on the Google API's console.
+     * @param scopes                the list of scopes to request to the Google Auth API.
+     * @param requestServerAuthCode whether to request a server auth code for the server client id along with the id token.
+     * @param googleCallback        to notify token reception and occurred errors.
+     */
+    GoogleAPI(@NonNull Activity activity, @NonNull String serverClientId, @NonNull Scope[] scopes, boolean requestServerAuthCode, @NonNull GoogleCallback googleCallback) {
+        this.context = activity.getApplicationContext();
+        this.activityRef = new WeakReference<>(activity);
         this.googleCallback = googleCallback;
-        this.client = createGoogleAPIClient(serverClientId, scopes);
+        this.serverClientId = serverClientId;
+        this.scopes = scopes.clone();
+        this.requestServerAuthCode = requestServerAuthCode;
+        this.client = createGoogleAPIClient(serverClientId, this.scopes);
     }
 
     /**
@@ -56,8 +100,53 @@ class GoogleAPI implements GoogleApiClient.ConnectionCallbacks, GoogleApiClient.
         this.rememberLastLogin = rememberLastLogin;
     }
 
+    /**
+     * Whether it should try to obtain the last signed in account without user interaction before launching the sign in Intent.
+     * Only used when the last login is remembered.
+     *
+     * @param silentSignIn the new silent sign in flag value.
+     */
+    public void silentSignIn(boolean silentSignIn) {
+        this.silentSignIn = silentSignIn;
+    }
+
+    /**
+     * Sets the listener to notify when each phase handled by this helper ends.
+     *
+     * @param metrics the listener to notify, or null to stop reporting.
+     */
+    void setMetrics(@Nullable GoogleAuthMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Sets the maximum time to wait for the connection and for the sign in result once the account is requested.
+     * When one of them expires, the phase is reported as timed out and the callback is notified.
+     * A timeout still pending from a previous login is canceled.
+     *
+     * @param scheduler               the scheduler to run the timeouts with, or null to disable them.
+     * @param connectionTimeoutMillis the maximum time to connect, in milliseconds. Use 0 to disable it.
+     * @param signInTimeoutMillis     the maximum time to obtain the sign in result, in milliseconds. Use 0 to disable it.
+     */
+    void setTimeouts(@Nullable Scheduler scheduler, long connectionTimeoutMillis, long signInTimeoutMillis) {
+        // The pending timeout was scheduled on the previous scheduler, cancel it before replacing it.
+        cancelPhaseTimeout();
+        this.scheduler = scheduler;
+        this.connectionTimeoutMillis = connectionTimeoutMillis;
+        this.signInTimeoutMillis = signInTimeoutMillis;
+    }
+
     @Override
     public void onConnected(@Nullable Bundle bundle) {
+        cancelPhaseTimeout();
+        reportPhase(Phase.CONNECTION, Outcome.SUCCESS, connectionStartNanos);
+        if (signOutPending) {
+            startSignOut();
+        }
+        if (!accountRequested) {
+            Log.v(TAG, "Connected ahead of time. Waiting for the account to be requested.");
+            return;
+        }
         requestGoogleAccount(signInRequestCode);
     }
 
@@ -72,28 +161,49 @@ class GoogleAPI implements GoogleApiClient.ConnectionCallbacks, GoogleApiClient.
             // Already attempting to resolve an error.
             return;
         }
+        cancelPhaseTimeout();
+        reportPhase(Phase.CONNECTION, Outcome.FAILURE, connectionStartNanos);
+        if (!accountRequested) {
+            // Connecting ahead of time. The next account request will connect again and handle the failure.
+            Log.v(TAG, "Connection failed before the account was requested with code: " + connectionResult.getErrorCode());
+            return;
+        }
         if (connectionResult.hasResolution()) {
             Log.v(TAG, "Connection failed. Trying to start the resolution.");
+            final Activity activity = activityRef.get();
+            if (activity == null) {
+                Log.w(TAG, "The activity is gone. Can't start the resolution.");
+                googleCallback.onCancel();
+                return;
+            }
             try {
                 resolvingError = true;
+                errorResolutionStartNanos = System.nanoTime();
                 connectionResult.startResolutionForResult(activity, errorResolutionRequestCode);
             } catch (IntentSender.SendIntentException e) {
-                client.connect();
+                reportPhase(Phase.ERROR_RESOLUTION, Outcome.FAILURE, errorResolutionStartNanos);
+                startConnection();
             }
         } else {
             Log.v(TAG, "Connection failed. No resolution was possible.");
-            googleCallback.onError(getErrorDialog(connectionResult.getErrorCode(), errorResolutionRequestCode));
+            final Dialog errorDialog = getErrorDialog(connectionResult.getErrorCode(), errorResolutionRequestCode);
+            if (errorDialog == null) {
+                googleCallback.onCancel();
+                return;
+            }
+            googleCallback.onError(errorDialog);
             resolvingError = true;
         }
     }
 
     /**
      * Checks if the Google Play Services required package is available in the device.
+     * A successful result is cached process wide until the Google Play Services package changes.
      *
      * @return a code int explaining whether the package is available or not.
      */
     int isGooglePlayServicesAvailable() {
-        return GoogleApiAvailability.getInstance().isGooglePlayServicesAvailable(activity);
+        return PlayServicesAvailabilityCache.getInstance().isGooglePlayServicesAvailable(context);
     }
 
     /**
@@ -101,9 +211,15 @@ class GoogleAPI implements GoogleApiClient.ConnectionCallbacks, GoogleApiClient.
      *
      * @param errorCode   the code int to explain
      * @param requestCode the request code to use when you expect the result.
-     * @return a new dialog instance ready to show
+     * @return a new dialog instance ready to show, or null if the activity is gone.
      */
+    @Nullable
     Dialog getErrorDialog(int errorCode, int requestCode) {
+        final Activity activity = activityRef.get();
+        if (activity == null) {
+            Log.w(TAG, "The activity is gone. Can't create the error dialog.");
+            return null;
+        }
         final Dialog dialog = GoogleApiAvailability.getInstance().getErrorDialog(activity, errorCode, requestCode);
         dialog.setOnDismissListener(new DialogInterface.OnDismissListener() {
             @Override
@@ -121,15 +237,123 @@ class GoogleAPI implements GoogleApiClient.ConnectionCallbacks, GoogleApiClient.
      * @param errorResolutionRequestCode the request code to use when you expect the erorr resolution result.
      */
     void connectAndRequestGoogleAccount(int signInRequestCode, int errorResolutionRequestCode) {
+        this.signInRequestCode = signInRequestCode;
+        this.errorResolutionRequestCode = errorResolutionRequestCode;
+        this.accountRequested = true;
         if (client.isConnected()) {
             requestGoogleAccount(signInRequestCode);
-        } else if (!client.isConnecting()) {
-            this.signInRequestCode = signInRequestCode;
-            this.errorResolutionRequestCode = errorResolutionRequestCode;
-            client.connect();
+            return;
+        }
+        if (!client.isConnecting()) {
+            startConnection();
+        }
+        startPhaseTimeout(Phase.CONNECTION, connectionStartNanos, connectionTimeoutMillis);
+    }
+
+    /**
+     * Logs out the current account and launches the sign in Intent once the account is logged out, skipping any silent sign in.
+     * Used when the account obtained can't be used to authenticate.
+     *
+     * @return whether the new sign in was requested. It can't be requested once the client is disconnected.
+     */
+    boolean forceSignIn() {
+        if (client == null || !client.isConnected()) {
+            Log.w(TAG, "Can't request a new sign in without a connected client");
+            return false;
+        }
+        signedOut = false;
+        signInAfterSignOut = true;
+        startSignOut();
+        return true;
+    }
+
+    /**
+     * Logs out the current account ahead of time, connecting the Google API Client first if needed.
+     * The next account request won't have to wait for the logout and will launch the sign in Intent right away.
+     */
+    void signOut() {
+        if (client == null) {
+            return;
+        }
+        if (client.isConnected()) {
+            startSignOut();
+        } else {
+            signOutPending = true;
+            connect();
+        }
+    }
+
+    /**
+     * Requests the given scopes for the already signed in account, without asking the user to choose an account again.
+     * A separate Google API Client is used so the main one keeps its configuration. The result is delivered to the
+     * callback like a regular sign in result.
+     *
+     * @param accountName   the email of the signed in account.
+     * @param missingScopes the scopes the account didn't grant yet.
+     */
+    void requestMissingScopes(@NonNull String accountName, @NonNull Scope[] missingScopes) {
+        if (client == null) {
+            Log.w(TAG, "Can't request the missing scopes after the state was cleared");
+            return;
+        }
+        disconnectScopesClient();
+        scopeRequestStartNanos = System.nanoTime();
+        startPhaseTimeout(Phase.SCOPE_REQUEST, scopeRequestStartNanos, signInTimeoutMillis);
+        scopesClient = createGoogleAPIClient(createSignInOptions(serverClientId, missingScopes, requestServerAuthCode, accountName), new GoogleApiClient.ConnectionCallbacks() {
+            @Override
+            public void onConnected(@Nullable Bundle bundle) {
+                if (scopesClient != null) {
+                    launchSignInIntent(scopesClient, signInRequestCode);
+                }
+            }
+
+            @Override
+            public void onConnectionSuspended(int code) {
+                Log.v(TAG, "Scopes request connection suspended with code: " + code);
+            }
+        }, new GoogleApiClient.OnConnectionFailedListener() {
+            @Override
+            public void onConnectionFailed(@NonNull ConnectionResult connectionResult) {
+                Log.v(TAG, "Couldn't connect to request the missing scopes. Error code: " + connectionResult.getErrorCode());
+                cancelPhaseTimeout();
+                reportPhase(Phase.SCOPE_REQUEST, Outcome.FAILURE, scopeRequestStartNanos);
+                disconnectScopesClient();
+                final Dialog errorDialog = getErrorDialog(connectionResult.getErrorCode(), errorResolutionRequestCode);
+                if (errorDialog == null) {
+                    googleCallback.onCancel();
+                    return;
+                }
+                googleCallback.onError(errorDialog);
+            }
+        });
+        scopesClient.connect();
+    }
+
+    /**
+     * Connects the Google API Client ahead of time, without requesting the user Account.
+     * A later call to connectAndRequestGoogleAccount() will use the already connected client.
+     */
+    void connect() {
+        if (client != null && !client.isConnected() && !client.isConnecting()) {
+            startConnection();
         }
     }
 
+    /**
+     * Checks if this instance was created with the same configuration and can be used to authenticate again
+     * instead of creating a new Google API Client.
+     *
+     * @param activity              the activity context that will be used to authenticate.
+     * @param serverClientId        the OAuth 2.0 server client id to request the id token with.
+     * @param scopes                the list of scopes to request to the Google Auth API.
+     * @param requestServerAuthCode whether a server auth code is requested.
+     * @return whether this instance can be reused or not.
+     */
+    boolean canBeReusedFor(@NonNull Activity activity, @NonNull String serverClientId, @NonNull Scope[] scopes, boolean requestServerAuthCode) {
+        return client != null && activityRef.get() == activity && this.requestServerAuthCode == requestServerAuthCode
+                && this.serverClientId.equals(serverClientId) && Arrays.equals(this.scopes, scopes);
+    }
+
     /**
      * Given the data received in the activity.onActivityResult() call, tries to parse the
      * content to figure out if it's an error resolution result or a sign up result.
@@ -141,19 +365,32 @@ class GoogleAPI implements GoogleApiClient.ConnectionCallbacks, GoogleApiClient.
      */
     boolean parseSignInResult(int requestCode, int resultCode, Intent intent) {
         if (requestCode == errorResolutionRequestCode) {
+            cancelPhaseTimeout();
             resolvingError = false;
             if (resultCode == Activity.RESULT_OK) {
+                reportPhase(Phase.ERROR_RESOLUTION, Outcome.SUCCESS, errorResolutionStartNanos);
                 connectAndRequestGoogleAccount(signInRequestCode, errorResolutionRequestCode);
+            } else {
+                reportPhase(Phase.ERROR_RESOLUTION, Outcome.CANCELED, errorResolutionStartNanos);
+                googleCallback.onCancel();
             }
             return true;
         } else if (requestCode == signInRequestCode) {
-            if (resultCode == Activity.RESULT_OK) {
-                final GoogleSignInResult result = Auth.GoogleSignInApi.getSignInResultFromIntent(intent);
-                if (result.isSuccess()) {
-                    googleCallback.onSuccess(result.getSignInAccount());
-                } else if (result.getStatus().isCanceled()) {
-                    googleCallback.onCancel();
-                }
+            cancelPhaseTimeout();
+            final boolean scopesRequest = scopesClient != null;
+            final Phase phase = scopesRequest ? Phase.SCOPE_REQUEST : Phase.SIGN_IN;
+            final long startNanos = scopesRequest ? scopeRequestStartNanos : signInStartNanos;
+            disconnectScopesClient();
+            final GoogleSignInResult result = resultCode == Activity.RESULT_OK ? Auth.GoogleSignInApi.getSignInResultFromIntent(intent) : null;
+            if (result != null && result.isSuccess()) {
+                signedOut = false;
+                reportPhase(phase, Outcome.SUCCESS, startNanos);
+                googleCallback.onSuccess(result.getSignInAccount());
+            } else {
+                Log.v(TAG, "Sign in didn't succeed. Result code: " + resultCode);
+                final boolean canceled = result == null || result.getStatus().isCanceled();
+                reportPhase(phase, canceled ? Outcome.CANCELED : Outcome.FAILURE, startNanos);
+                googleCallback.onCancel();
             }
             return true;
         }
@@ -165,11 +402,13 @@ class GoogleAPI implements GoogleApiClient.ConnectionCallbacks, GoogleApiClient.
      * Clears this helper state. After this method is called the provider should not be used.
      */
     public void logoutAndClearState() {
+        cancelPhaseTimeout();
+        disconnectScopesClient();
         if (client != null && client.isConnected()) {
             logout();
             client.disconnect();
         }
-        activity = null;
+        activityRef.clear();
         client = null;
     }
 
@@ -195,34 +434,194 @@ class GoogleAPI implements GoogleApiClient.ConnectionCallbacks, GoogleApiClient.
      * Disconnects the current GoogleAPIClient instance. After this method is called the provider should not be used.
      */
     void disconnect() {
+        cancelPhaseTimeout();
+        disconnectScopesClient();
         if (client != null && client.isConnected()) {
             client.disconnect();
         }
         client = null;
     }
 
-    private GoogleApiClient createGoogleAPIClient(String serverClientId, Scope[] scopes) {
+    GoogleApiClient createGoogleAPIClient(String serverClientId, Scope[] scopes) {
+        return createGoogleAPIClient(createSignInOptions(serverClientId, scopes, requestServerAuthCode, null), this, this);
+    }
+
+    GoogleApiClient createGoogleAPIClient(GoogleSignInOptions options, GoogleApiClient.ConnectionCallbacks connectionCallbacks, GoogleApiClient.OnConnectionFailedListener connectionFailedListener) {
+        final GoogleApiClient.Builder builder = new GoogleApiClient.Builder(context, connectionCallbacks, connectionFailedListener)
+                .addApi(Auth.GOOGLE_SIGN_IN_API, options);
+
+        return builder.build();
+    }
+
+    static GoogleSignInOptions createSignInOptions(String serverClientId, Scope[] scopes, boolean requestServerAuthCode, @Nullable String accountName) {
         final GoogleSignInOptions.Builder gsoBuilder = new GoogleSignInOptions.Builder()
                 .requestIdToken(serverClientId);
+        if (requestServerAuthCode) {
+            gsoBuilder.requestServerAuthCode(serverClientId);
+        }
         if (scopes.length == 1) {
             gsoBuilder.requestScopes(scopes[0]);
         } else if (scopes.length > 1) {
             gsoBuilder.requestScopes(scopes[0], scopes);
         }
+        if (accountName != null) {
+            gsoBuilder.setAccountName(accountName);
+        }
+        return gsoBuilder.build();
+    }
 
-        final GoogleApiClient.Builder builder = new GoogleApiClient.Builder(activity, this, this)
-                .addApi(Auth.GOOGLE_SIGN_IN_API, gsoBuilder.build());
 
-        return builder.build();
+    private void requestGoogleAccount(int signInRequestCode) {
+        if (signingOut) {
+            Log.v(TAG, "Waiting for the logout to finish before launching the sign in Intent.");
+            signInAfterSignOut = true;
+            return;
+        }
+        if (!rememberLastLogin && !signedOut) {
+            signInAfterSignOut = true;
+            startSignOut();
+            return;
+        }
+        if (silentSignIn && !signedOut) {
+            requestSilentSignIn(signInRequestCode);
+            return;
+        }
+        launchSignInIntent(signInRequestCode);
     }
 
+    /**
+     * Logs out the current account and, if an account was requested meanwhile, launches the sign in Intent after the logout finishes.
+     */
+    private void startSignOut() {
+        signOutPending = false;
+        if (signingOut) {
+            return;
+        }
+        signingOut = true;
+        final long startNanos = System.nanoTime();
+        try {
+            Auth.GoogleSignInApi.signOut(client).setResultCallback(new ResultCallback<Status>() {
+                @Override
+                public void onResult(@NonNull Status status) {
+                    if (!status.isSuccess()) {
+                        Log.w(TAG, "Couldn't clear account and credentials");
+                    }
+                    onSignOutFinished(status.isSuccess(), startNanos);
+                }
+            });
+        } catch (IllegalStateException e) {
+            Log.e(TAG, "Failed to clear the Google Plus Session", e);
+            onSignOutFinished(false, startNanos);
+        }
+    }
 
-    private void requestGoogleAccount(int signInRequestCode) {
-        if (!rememberLastLogin) {
-            logout();
+    private void onSignOutFinished(boolean success, long startNanos) {
+        signingOut = false;
+        if (client == null) {
+            Log.v(TAG, "Logout finished after the state was cleared. Ignoring the result.");
+            return;
+        }
+        signedOut = success;
+        reportPhase(Phase.SIGN_OUT, success ? Outcome.SUCCESS : Outcome.FAILURE, startNanos);
+        if (signInAfterSignOut) {
+            // Even if the logout failed, the sign in Intent lets the user choose the account.
+            signInAfterSignOut = false;
+            launchSignInIntent(signInRequestCode);
+        }
+    }
+
+    private void startConnection() {
+        connectionStartNanos = System.nanoTime();
+        client.connect();
+    }
+
+    private void reportPhase(Phase phase, Outcome outcome, long startNanos) {
+        if (metrics != null) {
+            metrics.onPhaseCompleted(phase, outcome, startNanos, System.nanoTime());
+        }
+    }
+
+    private void requestSilentSignIn(final int signInRequestCode) {
+        final long startNanos = System.nanoTime();
+        startPhaseTimeout(Phase.SILENT_SIGN_IN, startNanos, signInTimeoutMillis);
+        final OptionalPendingResult<GoogleSignInResult> pendingResult = Auth.GoogleSignInApi.silentSignIn(client);
+        if (pendingResult.isDone()) {
+            Log.v(TAG, "Using the cached sign in result.");
+            onSilentSignInResult(pendingResult.get(), signInRequestCode, startNanos);
+            return;
+        }
+        pendingResult.setResultCallback(new ResultCallback<GoogleSignInResult>() {
+            @Override
+            public void onResult(@NonNull GoogleSignInResult result) {
+                onSilentSignInResult(result, signInRequestCode, startNanos);
+            }
+        });
+    }
+
+    private void onSilentSignInResult(GoogleSignInResult result, int signInRequestCode, long startNanos) {
+        if (client == null) {
+            Log.v(TAG, "Silent sign in finished after the state was cleared. Ignoring the result.");
+            return;
+        }
+        cancelPhaseTimeout();
+        reportPhase(Phase.SILENT_SIGN_IN, result.isSuccess() ? Outcome.SUCCESS : Outcome.FAILURE, startNanos);
+        if (result.isSuccess()) {
+            googleCallback.onSuccess(result.getSignInAccount());
+            return;
+        }
+        Log.v(TAG, "Silent sign in couldn't be resolved with status " + result.getStatus().getStatusCode() + ". Launching the sign in Intent.");
+        launchSignInIntent(signInRequestCode);
+    }
+
+    private void launchSignInIntent(int signInRequestCode) {
+        signInStartNanos = System.nanoTime();
+        startPhaseTimeout(Phase.SIGN_IN, signInStartNanos, signInTimeoutMillis);
+        launchSignInIntent(client, signInRequestCode);
+    }
+
+    private void launchSignInIntent(GoogleApiClient client, int signInRequestCode) {
+        final Activity activity = activityRef.get();
+        if (activity == null) {
+            Log.w(TAG, "The activity is gone. Can't launch the sign in Intent.");
+            cancelPhaseTimeout();
+            googleCallback.onCancel();
+            return;
         }
         final Intent signInIntent = Auth.GoogleSignInApi.getSignInIntent(client);
         activity.startActivityForResult(signInIntent, signInRequestCode);
     }
 
+    private void startPhaseTimeout(final Phase phase, final long startNanos, long timeoutMillis) {
+        cancelPhaseTimeout();
+        if (scheduler == null || timeoutMillis <= 0) {
+            return;
+        }
+        phaseTimeout = new Runnable() {
+            @Override
+            public void run() {
+                phaseTimeout = null;
+                Log.w(TAG, "The " + phase + " phase didn't finish in time");
+                reportPhase(phase, Outcome.TIMEOUT, startNanos);
+                googleCallback.onTimeout(phase);
+            }
+        };
+        scheduler.schedule(phaseTimeout, timeoutMillis);
+    }
+
+    private void cancelPhaseTimeout() {
+        if (phaseTimeout != null) {
+            if (scheduler != null) {
+                scheduler.cancel(phaseTimeout);
+            }
+            phaseTimeout = null;
+        }
+    }
+
+    private void disconnectScopesClient() {
+        if (scopesClient != null) {
+            scopesClient.disconnect();
+            scopesClient = null;
+        }
+    }
+
 }
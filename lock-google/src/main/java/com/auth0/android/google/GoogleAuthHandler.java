@@ -6,14 +6,24 @@ import android.support.annotation.Nullable;
 import com.auth0.android.authentication.AuthenticationAPIClient;
 import com.auth0.android.provider.AuthHandler;
 import com.auth0.android.provider.AuthProvider;
+import com.google.android.gms.common.api.Scope;
+
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * AuthHandler class to handle the Authentication flow using the Google Android SDK.
  * By default, all the authentication requests to this provider with the strategy "google-oauth2" will be handled.
+ * Connections registered with addConnection() are handled by their own provider, which is created on the first request
+ * and reused by the next ones.
  */
 public class GoogleAuthHandler implements AuthHandler {
 
+    private static final String GOOGLE_STRATEGY = "google-oauth2";
+
+    private final AuthenticationAPIClient apiClient;
     private final GoogleAuthProvider provider;
+    private final Map<String, ConnectionProvider> connectionProviders;
 
     /**
      * Creates a new instance of this AuthHandler with the given Auth0 AuthenticationAPIClient and the Google Server Client ID.
@@ -23,7 +33,7 @@ public class GoogleAuthHandler implements AuthHandler {
      * @param serverClientId the Google Server Client ID to begin the id_token request with.
      */
     public GoogleAuthHandler(@NonNull AuthenticationAPIClient apiClient, @NonNull String serverClientId) {
-        this(new GoogleAuthProvider(serverClientId, apiClient));
+        this(apiClient, new GoogleAuthProvider(serverClientId, apiClient));
     }
 
     /**
@@ -32,15 +42,120 @@ public class GoogleAuthHandler implements AuthHandler {
      * @param provider provider to return in the providerFor() requests.
      */
     public GoogleAuthHandler(@NonNull GoogleAuthProvider provider) {
+        this(null, provider);
+    }
+
+    /**
+     * Creates a new instance of this AuthHandler that only handles the connections registered with addConnection().
+     *
+     * @param apiClient Auth0 api client to perform the authentication requests with.
+     */
+    public GoogleAuthHandler(@NonNull AuthenticationAPIClient apiClient) {
+        this(apiClient, (GoogleAuthProvider) null);
+    }
+
+    private GoogleAuthHandler(@Nullable AuthenticationAPIClient apiClient, @Nullable GoogleAuthProvider provider) {
+        this.apiClient = apiClient;
         this.provider = provider;
+        this.connectionProviders = new HashMap<>();
+    }
+
+    /**
+     * Registers a Google connection with its own Server Client ID and scopes. The provider for it is created on the first
+     * authentication request and reused by the next ones. Must be called before passing this handler to Lock.
+     *
+     * @param connectionName the name of the Auth0 Google connection.
+     * @param serverClientId the Google Server Client ID to begin the id_token request with.
+     * @param scopes         the scopes to request. If none are given, the provider default is used.
+     * @return this handler, to chain calls.
+     */
+    @NonNull
+    public GoogleAuthHandler addConnection(@NonNull String connectionName, @NonNull String serverClientId, @NonNull Scope... scopes) {
+        if (apiClient == null) {
+            throw new IllegalStateException("This handler was created without an AuthenticationAPIClient. Register the connection with a GoogleAuthProvider instead.");
+        }
+        connectionProviders.put(connectionName, new LazyConnectionProvider(apiClient, connectionName, serverClientId, scopes.clone()));
+        return this;
+    }
+
+    /**
+     * Registers a Google connection to be handled by the given provider. Must be called before passing this handler to Lock.
+     *
+     * @param connectionName the name of the Auth0 Google connection.
+     * @param provider       provider to return in the providerFor() requests for this connection.
+     * @return this handler, to chain calls.
+     */
+    @NonNull
+    public GoogleAuthHandler addConnection(@NonNull String connectionName, @NonNull GoogleAuthProvider provider) {
+        connectionProviders.put(connectionName, new FixedConnectionProvider(provider));
+        return this;
     }
 
     @Nullable
     @Override
     public AuthProvider providerFor(@Nullable String strategy, @NonNull String connection) {
-        if ("google-oauth2".equals(strategy)) {
+        if (!GOOGLE_STRATEGY.equals(strategy)) {
+            return null;
+        }
+        final ConnectionProvider connectionProvider = connectionProviders.get(connection);
+        if (connectionProvider != null) {
+            return connectionProvider.get();
+        }
+        return provider;
+    }
+
+    /**
+     * Holds the provider of a registered connection.
+     */
+    private interface ConnectionProvider {
+        @NonNull
+        GoogleAuthProvider get();
+    }
+
+    /**
+     * Provider of a connection registered with a GoogleAuthProvider instance.
+     */
+    private static class FixedConnectionProvider implements ConnectionProvider {
+        private final GoogleAuthProvider provider;
+
+        FixedConnectionProvider(@NonNull GoogleAuthProvider provider) {
+            this.provider = provider;
+        }
+
+        @NonNull
+        @Override
+        public GoogleAuthProvider get() {
+            return provider;
+        }
+    }
+
+    /**
+     * Provider of a connection registered with its Server Client ID and scopes, created when first needed.
+     */
+    private static class LazyConnectionProvider implements ConnectionProvider {
+        private final AuthenticationAPIClient apiClient;
+        private final String connectionName;
+        private final String serverClientId;
+        private final Scope[] scopes;
+        private GoogleAuthProvider provider;
+
+        LazyConnectionProvider(@NonNull AuthenticationAPIClient apiClient, @NonNull String connectionName, @NonNull String serverClientId, @NonNull Scope[] scopes) {
+            this.apiClient = apiClient;
+            this.connectionName = connectionName;
+            this.serverClientId = serverClientId;
+            this.scopes = scopes;
+        }
+
+        @NonNull
+        @Override
+        public synchronized GoogleAuthProvider get() {
+            if (provider == null) {
+                provider = new GoogleAuthProvider(connectionName, serverClientId, apiClient);
+                if (scopes.length > 0) {
+                    provider.setScopes(scopes);
+                }
+            }
             return provider;
         }
-        return null;
     }
 }
@@ -0,0 +1,82 @@
+package com.auth0.android.google;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Listener notified every time a phase of the native Google login ends. Use it to measure where the login time is spent.
+ * The timestamps are taken from a monotonic clock in nanoseconds, so only the difference between them is meaningful.
+ * Calls happen on the thread that completed the phase.
+ */
+public interface GoogleAuthMetrics {
+
+    enum Phase {
+        /**
+         * The whole login, from the start of the authentication until its result is delivered. Only reported when the login times out.
+         */
+        LOGIN,
+        /**
+         * Check of the Google Play Services availability in the device.
+         */
+        AVAILABILITY_CHECK,
+        /**
+         * Connection of the GoogleApiClient, from the connect() call until it's connected or fails.
+         */
+        CONNECTION,
+        /**
+         * Resolution of a connection error, from launching the resolution until its result is received.
+         */
+        ERROR_RESOLUTION,
+        /**
+         * Logout of the previous account, when the last login is not remembered or a logout was requested ahead of time.
+         */
+        SIGN_OUT,
+        /**
+         * Attempt to sign in the last used account without user interaction.
+         */
+        SILENT_SIGN_IN,
+        /**
+         * Interactive sign in, from launching the sign in Intent until its result is received.
+         */
+        SIGN_IN,
+        /**
+         * Check that the user granted all the requested scopes.
+         */
+        SCOPE_CHECK,
+        /**
+         * Request of the scopes the signed in account didn't grant, when incremental authorization is enabled.
+         */
+        SCOPE_REQUEST,
+        /**
+         * Exchange of the Google token for Auth0 Credentials.
+         */
+        TOKEN_EXCHANGE,
+        /**
+         * Retrieval of the user profile after the exchange, when a UserProfileFetcher is set.
+         */
+        USER_PROFILE
+    }
+
+    enum Outcome {
+        SUCCESS,
+        FAILURE,
+        CANCELED,
+        /**
+         * The result was taken from a cache and the work was skipped.
+         */
+        CACHED,
+        /**
+         * The phase didn't end before its deadline and was abandoned.
+         */
+        TIMEOUT
+    }
+
+    /**
+     * Called when a phase ends.
+     *
+     * @param phase      the phase that ended.
+     * @param outcome    how the phase ended.
+     * @param startNanos the monotonic time the phase started at.
+     * @param endNanos   the monotonic time the phase ended at.
+     */
+    void onPhaseCompleted(@NonNull Phase phase, @NonNull Outcome outcome, long startNanos, long endNanos);
+}
@@ -10,16 +10,23 @@ import android.util.Log;
 import com.auth0.android.authentication.AuthenticationAPIClient;
 import com.auth0.android.authentication.AuthenticationException;
 import com.auth0.android.callback.AuthenticationCallback;
+import com.auth0.android.google.GoogleAuthMetrics.Outcome;
+import com.auth0.android.google.GoogleAuthMetrics.Phase;
 import com.auth0.android.provider.AuthCallback;
 import com.auth0.android.provider.AuthProvider;
 import com.auth0.android.result.Credentials;
+import com.auth0.android.result.UserProfile;
 import com.google.android.gms.auth.api.signin.GoogleSignInAccount;
 import com.google.android.gms.common.ConnectionResult;
 import com.google.android.gms.common.Scopes;
 import com.google.android.gms.common.api.Scope;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 
@@ -33,14 +40,51 @@ public class GoogleAuthProvider extends AuthProvider {
      * Used internally to dispatch error resolver dialogs.
      */
     static final int REQUEST_RESOLVE_ERROR = 1001;
+    /**
+     * Code of the AuthenticationException returned when the login or one of its phases doesn't finish in time.
+     */
+    public static final String ERROR_CODE_TIMEOUT = "a0.google_timeout";
+    /**
+     * Code of the ErrorDialogException a login started with startAsync() fails with when the Google Play Services are not available.
+     */
+    public static final String ERROR_CODE_PLAY_SERVICES = "a0.google_play_services_unavailable";
+    /**
+     * Code of the ErrorDialogException a login started with startAsync() fails with when the Google API Client couldn't connect
+     * and the user can resolve the error.
+     */
+    public static final String ERROR_CODE_CONNECTION = "a0.google_connection_failed";
 
     private final AuthenticationAPIClient auth0;
+    private GoogleTokenExchanger tokenExchanger;
+    private boolean requestServerAuthCode;
     private final String serverClientId;
     private final String connectionName;
     private Scope[] scopes;
+    private Set<Scope> requestedScopes;
     private GoogleAPI google;
     private String[] androidPermissions;
     private boolean rememberLastLogin;
+    private boolean silentSignIn;
+    private CredentialsCache credentialsCache;
+    private CredentialsRefresher credentialsRefresher;
+    private UserProfileFetcher userProfileFetcher;
+    private IdTokenVerifier idTokenVerifier;
+    private boolean forcedSignIn;
+    private boolean incrementalAuthorization;
+    private Set<Scope> grantedBeforeScopeRequest;
+    private final List<AuthCallback> pendingCallbacks;
+    private boolean loginInProgress;
+    private GoogleAuthMetrics metrics;
+    private RetryPolicy retryPolicy;
+    private Scheduler scheduler;
+    private Runnable pendingRetry;
+    private long loginTimeoutMillis;
+    private long connectionTimeoutMillis;
+    private long signInTimeoutMillis;
+    private long exchangeTimeoutMillis;
+    private Runnable loginTimeout;
+    private Runnable exchangeTimeout;
+    private int exchangeId;
 
     /**
      * Creates Google Auth provider for default Google connection 'google-oauth2'.
@@ -61,11 +105,13 @@ public class GoogleAuthProvider extends AuthProvider {
      */
     public GoogleAuthProvider(@NonNull String connectionName, @NonNull String serverClientId, @NonNull AuthenticationAPIClient client) {
         this.auth0 = client;
+        this.tokenExchanger = new Auth0TokenExchanger(client);
         this.serverClientId = serverClientId;
-        this.scopes = new Scope[]{new Scope(Scopes.PLUS_LOGIN)};
+        setScopes(new Scope(Scopes.PLUS_LOGIN));
         this.connectionName = connectionName;
         this.androidPermissions = new String[0];
         this.rememberLastLogin = true;
+        this.pendingCallbacks = new ArrayList<>();
     }
 
     /**
@@ -88,6 +134,147 @@ public class GoogleAuthProvider extends AuthProvider {
         this.rememberLastLogin = rememberLastLogin;
     }
 
+    /**
+     * Whether it should try to sign in the last used account without user interaction before launching the Google sign in Intent.
+     * Only applies when the last login is remembered. By default it's false, meaning the sign in Intent is always launched.
+     *
+     * @param silentSignIn flag to try a silent Google sign in first
+     */
+    public void silentSignIn(boolean silentSignIn) {
+        this.silentSignIn = silentSignIn;
+    }
+
+    /**
+     * Whether it should decode the Google ID token locally and check its expiration and audience before exchanging it with Auth0.
+     * When the token is expired or wasn't issued for the server client id, a new Google sign in is requested once before failing.
+     * By default it's false, meaning the token is sent to Auth0 without being checked.
+     *
+     * @param verifyIdToken flag to check the ID token before the exchange
+     */
+    public void verifyIdToken(boolean verifyIdToken) {
+        this.idTokenVerifier = verifyIdToken ? new IdTokenVerifier(serverClientId) : null;
+    }
+
+    /**
+     * Whether it should request only the missing scopes on the signed in account when the user didn't grant all of them,
+     * instead of failing the authentication. The scopes are requested once per authentication, without asking the user to
+     * choose an account again. The account email is needed to do so, so include the Scopes.EMAIL scope when enabling it.
+     * By default it's false, meaning the authentication fails when any of the requested scopes is not granted.
+     *
+     * @param incrementalAuthorization flag to request the missing scopes
+     */
+    public void incrementalAuthorization(boolean incrementalAuthorization) {
+        this.incrementalAuthorization = incrementalAuthorization;
+    }
+
+    /**
+     * Whether it should request a server auth code for the server client id along with the ID token. The code is available
+     * in the GoogleSignInAccount handed to the GoogleTokenExchanger, so your backend can exchange it. By default it's false.
+     *
+     * @param requestServerAuthCode flag to request a server auth code
+     */
+    public void requestServerAuthCode(boolean requestServerAuthCode) {
+        this.requestServerAuthCode = requestServerAuthCode;
+    }
+
+    /**
+     * Sets the exchanger to obtain the Auth0 Credentials with once the user signs in with Google.
+     * By default the Google ID token is exchanged from the device with the Auth0 Authentication API.
+     *
+     * @param tokenExchanger the exchanger to use, or null to use the default one.
+     */
+    public void setTokenExchanger(@Nullable GoogleTokenExchanger tokenExchanger) {
+        this.tokenExchanger = tokenExchanger != null ? tokenExchanger : new Auth0TokenExchanger(auth0);
+    }
+
+    /**
+     * Sets the cache to use for the Credentials obtained from Auth0. When the same Google account signs in again
+     * with the same connection, scopes and parameters, the cached Credentials are returned without making a new request.
+     * By default no cache is used.
+     *
+     * @param credentialsCache the cache to use, or null to disable it.
+     */
+    public void setCredentialsCache(@Nullable CredentialsCache credentialsCache) {
+        this.credentialsCache = credentialsCache;
+    }
+
+    /**
+     * Sets the refresher to track the Credentials obtained from Auth0 with. The tracked Credentials are renewed in the background
+     * before they expire, and the refreshed Credentials replace the ones in the Credentials cache, if any.
+     * By default the Credentials are not refreshed.
+     *
+     * @param credentialsRefresher the refresher to use, or null to disable it.
+     */
+    public void setCredentialsRefresher(@Nullable CredentialsRefresher credentialsRefresher) {
+        this.credentialsRefresher = credentialsRefresher;
+    }
+
+    /**
+     * Sets the fetcher that obtains the user profile as part of the login. The Credentials are delivered once the profile is obtained
+     * or fails, right after the fetcher listener receives it. By default the profile is not fetched.
+     *
+     * @param userProfileFetcher the fetcher to use, or null to skip the profile.
+     */
+    public void setUserProfileFetcher(@Nullable UserProfileFetcher userProfileFetcher) {
+        this.userProfileFetcher = userProfileFetcher;
+    }
+
+    /**
+     * Sets the policy to retry the exchange of the Google token for Auth0 Credentials when it fails with a transient error.
+     * Only the exchange is retried, the user is not asked to sign in with Google again. By default the exchange is not retried.
+     *
+     * @param retryPolicy the policy to use, or null to disable the retries.
+     */
+    public void setRetryPolicy(@Nullable RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Sets the scheduler to run the delayed work of the authentication with, like the exchange retries and the timeouts.
+     * By default the work is posted to the main thread.
+     *
+     * @param scheduler the scheduler to use.
+     */
+    public void setScheduler(@NonNull Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Sets the maximum time the whole login can take, from the start of the authentication until its result is delivered.
+     * When it expires the pending work is abandoned, the Google API Client is released and the authentication fails with an
+     * AuthenticationException with the code ERROR_CODE_TIMEOUT. By default there's no timeout.
+     *
+     * @param loginTimeoutMillis the maximum time in milliseconds, or 0 to disable it.
+     */
+    public void setLoginTimeout(long loginTimeoutMillis) {
+        this.loginTimeoutMillis = loginTimeoutMillis;
+    }
+
+    /**
+     * Sets the maximum time each phase of the login can take. When one of them expires the login fails like when the
+     * login timeout expires. Keep in mind that the sign in timeout includes the time the user spends choosing an account.
+     * By default there are no timeouts.
+     *
+     * @param connectionTimeoutMillis the maximum time to connect the Google API Client in milliseconds, or 0 to disable it.
+     * @param signInTimeoutMillis     the maximum time to obtain the Google sign in result in milliseconds, or 0 to disable it.
+     * @param exchangeTimeoutMillis   the maximum time to exchange the Google token for Auth0 Credentials, retries included, in milliseconds, or 0 to disable it.
+     */
+    public void setPhaseTimeouts(long connectionTimeoutMillis, long signInTimeoutMillis, long exchangeTimeoutMillis) {
+        this.connectionTimeoutMillis = connectionTimeoutMillis;
+        this.signInTimeoutMillis = signInTimeoutMillis;
+        this.exchangeTimeoutMillis = exchangeTimeoutMillis;
+    }
+
+    /**
+     * Sets the listener to notify when each phase of the login ends, with the time it started and ended at.
+     * By default no metrics are reported.
+     *
+     * @param metrics the listener to notify, or null to stop reporting.
+     */
+    public void setMetrics(@Nullable GoogleAuthMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      * Change the scopes to request on the user login. Use any of the scopes defined in the com.google.android.gms.common.Scopes class. Must be called before start().
      * The scope Scopes.PLUG_LOGIN is requested by default.
@@ -96,26 +283,142 @@ public class GoogleAuthProvider extends AuthProvider {
      */
     public void setScopes(@NonNull Scope... scope) {
         this.scopes = scope;
+        this.requestedScopes = new HashSet<>(Arrays.asList(scope));
+    }
+
+    /**
+     * Creates and connects the Google API Client ahead of time, so the next authentication request doesn't have to wait for the connection.
+     * Call it when the login screen is shown, with the same activity that will later start the authentication.
+     * The prepared client is reused by the following authentication requests as long as the scopes don't change.
+     *
+     * @param activity a valid activity context to use
+     */
+    public void prepare(@NonNull Activity activity) {
+        final GoogleAPI googleAPI = obtainGoogleAPI(activity);
+        googleAPI.setMetrics(metrics);
+        if (checkGooglePlayServicesAvailability(googleAPI) == ConnectionResult.SUCCESS) {
+            googleAPI.connect();
+        }
+    }
+
+    /**
+     * Logs out the Google account ahead of time, for example when the user logs out of your application. The next authentication
+     * request won't have to wait for the logout and will ask the user to choose an account, without a silent sign in.
+     * Unlike clearSession(), the provider state is kept and the Google API Client can be reused by the next authentication.
+     *
+     * @param activity a valid activity context to use. Use the same activity that will later start the authentication to reuse the client.
+     */
+    public void signOut(@NonNull Activity activity) {
+        final GoogleAPI googleAPI = obtainGoogleAPI(activity);
+        googleAPI.setMetrics(metrics);
+        if (checkGooglePlayServicesAvailability(googleAPI) == ConnectionResult.SUCCESS) {
+            googleAPI.signOut();
+        }
+    }
+
+    /**
+     * Starts the authentication like start(Activity, AuthCallback, int, int) does, but returns a future of its result instead of
+     * taking a callback. Use it to run the login alongside other work and join on the results. The activity results must still be
+     * passed to authorize(int, int, Intent). If the Google Play Services are not available or the Google API Client couldn't connect,
+     * the future fails with an ErrorDialogException carrying the dialog to show.
+     * Canceling the future abandons the login, unless other callers are waiting for its result too.
+     *
+     * @param activity                  a valid activity context.
+     * @param permissionRequestCode     the request code to use when asking for the Android permissions.
+     * @param authenticationRequestCode the request code to use when launching the sign in Intent.
+     * @return the future of the Auth0 Credentials.
+     */
+    @NonNull
+    public AuthFuture<Credentials> startAsync(@NonNull Activity activity, int permissionRequestCode, int authenticationRequestCode) {
+        final AuthFuture<Credentials> future = new AuthFuture<>();
+        final AuthCallback callback = new DialogErrorCallback() {
+            @Override
+            public void onFailure(@Nullable Dialog dialog, @NonNull String code, @NonNull String description) {
+                future.fail(new ErrorDialogException(code, description, dialog));
+            }
+
+            @Override
+            public void onFailure(@NonNull Dialog dialog) {
+                onFailure(dialog, ERROR_CODE_PLAY_SERVICES, "The Google Play Services are not available in this device.");
+            }
+
+            @Override
+            public void onFailure(AuthenticationException exception) {
+                future.fail(exception);
+            }
+
+            @Override
+            public void onSuccess(@NonNull Credentials credentials) {
+                future.complete(credentials);
+            }
+        };
+        future.addCallback(new AuthFuture.Callback<Credentials>() {
+            @Override
+            public void onSuccess(@Nullable Credentials result) {
+            }
+
+            @Override
+            public void onFailure(@NonNull Throwable error) {
+                if (!future.isCancelled()) {
+                    return;
+                }
+                // The future can be canceled from any thread, the login state is only touched on the scheduler's.
+                getScheduler().schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        abandonLogin(callback);
+                    }
+                }, 0);
+            }
+        });
+        start(activity, callback, permissionRequestCode, authenticationRequestCode);
+        return future;
     }
 
     @Override
     protected void requestAuth(Activity activity, int requestCode) {
-        if (google != null) {
-            google.disconnect();
+        synchronized (pendingCallbacks) {
+            if (loginInProgress && google != null && google.canBeReusedFor(activity, serverClientId, scopes, requestServerAuthCode)) {
+                Log.d(TAG, "A login is already in progress. Its result will be delivered to this callback too.");
+                addPendingCallback(getCallback());
+                return;
+            }
+            pendingCallbacks.clear();
+            addPendingCallback(getCallback());
+            loginInProgress = true;
         }
-        google = createGoogleAPI(activity, rememberLastLogin);
-        final int availabilityStatus = google.isGooglePlayServicesAvailable();
+        cancelPendingRetry();
+        cancelTimeouts();
+        exchangeId++;
+        if (credentialsRefresher != null) {
+            // The scheduled refreshes don't run while the device sleeps, catch up with the ones that are overdue.
+            credentialsRefresher.refreshIfDue();
+        }
+        startLoginTimeout();
+        google = obtainGoogleAPI(activity);
+        google.rememberLastLogin(rememberLastLogin);
+        google.silentSignIn(silentSignIn);
+        google.setMetrics(metrics);
+        google.setTimeouts(connectionTimeoutMillis > 0 || signInTimeoutMillis > 0 ? getScheduler() : null, connectionTimeoutMillis, signInTimeoutMillis);
+        forcedSignIn = false;
+        grantedBeforeScopeRequest = null;
+        final int availabilityStatus = checkGooglePlayServicesAvailability(google);
         if (availabilityStatus == ConnectionResult.SUCCESS) {
             google.connectAndRequestGoogleAccount(requestCode, REQUEST_RESOLVE_ERROR);
             return;
         }
 
         Log.w(TAG, "Google services availability failed with status " + availabilityStatus);
-        getSafeCallback().onFailure(google.getErrorDialog(availabilityStatus, REQUEST_RESOLVE_ERROR));
+        failWithDialog(google.getErrorDialog(availabilityStatus, REQUEST_RESOLVE_ERROR), ERROR_CODE_PLAY_SERVICES,
+                "The Google Play Services are not available in this device. Status: " + availabilityStatus);
     }
 
     @Override
     public boolean authorize(int requestCode, int resultCode, @Nullable Intent intent) {
+        if (google == null) {
+            Log.w(TAG, "Received a result after the authentication ended");
+            return false;
+        }
         return google.parseSignInResult(requestCode, resultCode, intent);
     }
 
@@ -139,27 +442,289 @@ public class GoogleAuthProvider extends AuthProvider {
     @Override
     public void clearSession() {
         super.clearSession();
+        synchronized (pendingCallbacks) {
+            pendingCallbacks.clear();
+            loginInProgress = false;
+        }
+        cancelPendingRetry();
+        cancelTimeouts();
+        exchangeId++;
         if (google != null) {
             google.logoutAndClearState();
             google = null;
         }
     }
 
-    private void requestAuth0Token(String token) {
-        this.auth0
-                .loginWithOAuthAccessToken(token, connectionName)
-                .addAuthenticationParameters(getParameters())
-                .start(new AuthenticationCallback<Credentials>() {
-                    @Override
-                    public void onSuccess(Credentials credentials) {
-                        getSafeCallback().onSuccess(credentials);
-                    }
+    private int checkGooglePlayServicesAvailability(GoogleAPI googleAPI) {
+        final long startNanos = System.nanoTime();
+        final int availabilityStatus = googleAPI.isGooglePlayServicesAvailable();
+        reportPhase(Phase.AVAILABILITY_CHECK, availabilityStatus == ConnectionResult.SUCCESS ? Outcome.SUCCESS : Outcome.FAILURE, startNanos);
+        return availabilityStatus;
+    }
+
+    private void reportPhase(Phase phase, Outcome outcome, long startNanos) {
+        final GoogleAuthMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.onPhaseCompleted(phase, outcome, startNanos, System.nanoTime());
+        }
+    }
+
+    private GoogleAPI obtainGoogleAPI(Activity activity) {
+        if (google != null && google.canBeReusedFor(activity, serverClientId, scopes, requestServerAuthCode)) {
+            return google;
+        }
+        if (google != null) {
+            google.disconnect();
+        }
+        google = createGoogleAPI(activity, rememberLastLogin);
+        return google;
+    }
 
+    private void requestAuth0Token(final GoogleSignInAccount account) {
+        final long startNanos = System.nanoTime();
+        final Map<String, Object> parameters = getParameters();
+        final CredentialsCache credentialsCache = this.credentialsCache;
+        final CredentialsRefresher credentialsRefresher = this.credentialsRefresher;
+        final String key = (credentialsCache != null || credentialsRefresher != null) && account.getId() != null ? CredentialsCache.keyFor(account.getId(), connectionName, scopes, parameters) : null;
+        if (credentialsCache != null && key != null) {
+            final Credentials cachedCredentials = credentialsCache.get(key);
+            if (cachedCredentials != null) {
+                Log.v(TAG, "Using the cached Credentials for this account");
+                reportPhase(Phase.TOKEN_EXCHANGE, Outcome.CACHED, startNanos);
+                deliverCredentials(account, cachedCredentials, exchangeId);
+                return;
+            }
+        }
+        final RetryPolicy retryPolicy = this.retryPolicy;
+        final long firstAttemptMillis = retryPolicy != null ? getScheduler().now() : 0;
+        final int id = ++exchangeId;
+        startExchangeTimeout(startNanos);
+        exchangeToken(account, parameters, retryPolicy, 1, firstAttemptMillis, new AuthenticationCallback<Credentials>() {
+            @Override
+            public void onSuccess(Credentials credentials) {
+                if (id != exchangeId) {
+                    Log.v(TAG, "The token exchange finished after it was abandoned. Ignoring the result.");
+                    return;
+                }
+                reportPhase(Phase.TOKEN_EXCHANGE, Outcome.SUCCESS, startNanos);
+                if (credentialsCache != null && key != null) {
+                    credentialsCache.put(key, credentials);
+                }
+                if (credentialsRefresher != null && key != null) {
+                    credentialsRefresher.track(key, credentials, credentialsCache);
+                }
+                deliverCredentials(account, credentials, id);
+            }
+
+            @Override
+            public void onFailure(AuthenticationException error) {
+                if (id != exchangeId) {
+                    Log.v(TAG, "The token exchange failed after it was abandoned. Ignoring the error.");
+                    return;
+                }
+                reportPhase(Phase.TOKEN_EXCHANGE, Outcome.FAILURE, startNanos);
+                getSafeCallback().onFailure(error);
+            }
+        });
+    }
+
+    /**
+     * Delivers the Credentials of the login, after obtaining the user profile if a fetcher is set.
+     *
+     * @param id the id of the exchange, to ignore a profile that arrives after the login was abandoned.
+     */
+    private void deliverCredentials(GoogleSignInAccount account, final Credentials credentials, final int id) {
+        final UserProfileFetcher fetcher = this.userProfileFetcher;
+        if (fetcher == null) {
+            getSafeCallback().onSuccess(credentials);
+            return;
+        }
+        if (exchangeTimeout != null) {
+            // The exchange is over, the profile is only bound by the login timeout.
+            getScheduler().cancel(exchangeTimeout);
+            exchangeTimeout = null;
+        }
+        final long startNanos = System.nanoTime();
+        final UserProfile cachedProfile = fetcher.getCached(account, connectionName);
+        if (cachedProfile != null) {
+            reportPhase(Phase.USER_PROFILE, Outcome.CACHED, startNanos);
+            deliverProfile(fetcher, credentials, cachedProfile, null);
+            return;
+        }
+        fetcher.fetch(account, connectionName, credentials, new AuthenticationCallback<UserProfile>() {
+            @Override
+            public void onSuccess(UserProfile profile) {
+                if (id != exchangeId) {
+                    Log.v(TAG, "The user profile arrived after the login was abandoned. Ignoring it.");
+                    return;
+                }
+                reportPhase(Phase.USER_PROFILE, Outcome.SUCCESS, startNanos);
+                deliverProfile(fetcher, credentials, profile, null);
+            }
+
+            @Override
+            public void onFailure(AuthenticationException error) {
+                if (id != exchangeId) {
+                    Log.v(TAG, "The user profile failed after the login was abandoned. Ignoring the error.");
+                    return;
+                }
+                Log.w(TAG, "Could not obtain the user profile", error);
+                reportPhase(Phase.USER_PROFILE, Outcome.FAILURE, startNanos);
+                deliverProfile(fetcher, credentials, null, error);
+            }
+        });
+    }
+
+    private void deliverProfile(UserProfileFetcher fetcher, Credentials credentials, @Nullable UserProfile profile, @Nullable AuthenticationException error) {
+        final UserProfileFetcher.Listener listener = fetcher.getListener();
+        if (listener != null) {
+            if (profile != null) {
+                listener.onUserProfile(credentials, profile);
+            } else {
+                listener.onUserProfileFailed(credentials, error);
+            }
+        }
+        getSafeCallback().onSuccess(credentials);
+    }
+
+    private void exchangeToken(final GoogleSignInAccount account, final Map<String, Object> parameters, @Nullable final RetryPolicy retryPolicy,
+                               final int attempt, final long firstAttemptMillis, final AuthenticationCallback<Credentials> callback) {
+        tokenExchanger.exchange(account, connectionName, parameters, new AuthenticationCallback<Credentials>() {
+            @Override
+            public void onSuccess(Credentials credentials) {
+                if (retryPolicy != null) {
+                    retryPolicy.onExchangeFinished(attempt, true);
+                }
+                callback.onSuccess(credentials);
+            }
+
+            @Override
+            public void onFailure(AuthenticationException error) {
+                if (retryPolicy == null) {
+                    callback.onFailure(error);
+                    return;
+                }
+                final Scheduler scheduler = getScheduler();
+                final long delayMillis = retryPolicy.nextDelayMillis(attempt, scheduler.now() - firstAttemptMillis, error);
+                if (delayMillis == -1) {
+                    retryPolicy.onExchangeFinished(attempt, false);
+                    callback.onFailure(error);
+                    return;
+                }
+                Log.d(TAG, "The token exchange failed. Retrying in " + delayMillis + " ms", error);
+                retryPolicy.onRetry(attempt, delayMillis, error);
+                final Runnable retry = new Runnable() {
                     @Override
-                    public void onFailure(AuthenticationException error) {
-                        getSafeCallback().onFailure(error);
+                    public void run() {
+                        pendingRetry = null;
+                        exchangeToken(account, parameters, retryPolicy, attempt + 1, firstAttemptMillis, callback);
                     }
-                });
+                };
+                pendingRetry = retry;
+                scheduler.schedule(retry, delayMillis);
+            }
+        });
+    }
+
+    private void cancelPendingRetry() {
+        final Runnable retry = pendingRetry;
+        if (retry != null) {
+            pendingRetry = null;
+            getScheduler().cancel(retry);
+        }
+    }
+
+    private void startLoginTimeout() {
+        if (loginTimeoutMillis <= 0) {
+            return;
+        }
+        final long startNanos = System.nanoTime();
+        loginTimeout = new Runnable() {
+            @Override
+            public void run() {
+                loginTimeout = null;
+                reportPhase(Phase.LOGIN, Outcome.TIMEOUT, startNanos);
+                failWithTimeout(Phase.LOGIN);
+            }
+        };
+        getScheduler().schedule(loginTimeout, loginTimeoutMillis);
+    }
+
+    private void startExchangeTimeout(final long startNanos) {
+        if (exchangeTimeout != null) {
+            getScheduler().cancel(exchangeTimeout);
+            exchangeTimeout = null;
+        }
+        if (exchangeTimeoutMillis <= 0) {
+            return;
+        }
+        exchangeTimeout = new Runnable() {
+            @Override
+            public void run() {
+                exchangeTimeout = null;
+                reportPhase(Phase.TOKEN_EXCHANGE, Outcome.TIMEOUT, startNanos);
+                failWithTimeout(Phase.TOKEN_EXCHANGE);
+            }
+        };
+        getScheduler().schedule(exchangeTimeout, exchangeTimeoutMillis);
+    }
+
+    private void cancelTimeouts() {
+        if (loginTimeout != null) {
+            getScheduler().cancel(loginTimeout);
+            loginTimeout = null;
+        }
+        if (exchangeTimeout != null) {
+            getScheduler().cancel(exchangeTimeout);
+            exchangeTimeout = null;
+        }
+    }
+
+    /**
+     * Stops waiting for the login on behalf of the given caller. The login is abandoned when no other caller is waiting for it.
+     */
+    private void abandonLogin(AuthCallback callback) {
+        synchronized (pendingCallbacks) {
+            if (!pendingCallbacks.remove(callback) || !pendingCallbacks.isEmpty()) {
+                return;
+            }
+            loginInProgress = false;
+        }
+        Log.d(TAG, "The login was canceled by its caller");
+        exchangeId++;
+        cancelPendingRetry();
+        cancelTimeouts();
+        if (google != null) {
+            google.disconnect();
+            google = null;
+        }
+    }
+
+    /**
+     * Abandons the login in progress, releasing the Google API Client, and fails it with a timeout error.
+     */
+    private void failWithTimeout(Phase phase) {
+        synchronized (pendingCallbacks) {
+            if (!loginInProgress) {
+                Log.d(TAG, "Ignoring the " + phase + " timeout of a login that already ended");
+                return;
+            }
+        }
+        Log.w(TAG, "The login didn't finish in time. Phase: " + phase);
+        exchangeId++;
+        cancelPendingRetry();
+        if (google != null) {
+            google.disconnect();
+            google = null;
+        }
+        getSafeCallback().onFailure(new AuthenticationException(ERROR_CODE_TIMEOUT, "The " + phase + " phase of the Google login didn't finish in time."));
+    }
+
+    private Scheduler getScheduler() {
+        if (scheduler == null) {
+            scheduler = new HandlerScheduler();
+        }
+        return scheduler;
     }
 
     Scope[] getScopes() {
@@ -171,7 +736,7 @@ public class GoogleAuthProvider extends AuthProvider {
     }
 
     GoogleAPI createGoogleAPI(Activity activity, boolean rememberLastLogin) {
-        final GoogleAPI googleAPI = new GoogleAPI(activity, serverClientId, scopes, createTokenListener());
+        final GoogleAPI googleAPI = new GoogleAPI(activity, serverClientId, scopes, requestServerAuthCode, createTokenListener());
         googleAPI.rememberLastLogin(rememberLastLogin);
         return googleAPI;
     }
@@ -180,16 +745,26 @@ public class GoogleAuthProvider extends AuthProvider {
         return new GoogleCallback() {
             @Override
             public void onSuccess(GoogleSignInAccount account) {
+                final long startNanos = System.nanoTime();
                 final Set<Scope> grantedScopes = account.getGrantedScopes();
-                final Set<Scope> requestedScopes = new HashSet<>(Arrays.asList(scopes));
-                if (grantedScopes.containsAll(requestedScopes)) {
-                    requestAuth0Token(account.getIdToken());
-                } else {
-                    final Set<Scope> notGrantedScopes = new HashSet<>(requestedScopes);
-                    notGrantedScopes.removeAll(grantedScopes);
-                    Log.w(TAG, "Some scopes were not granted: " + notGrantedScopes.toString());
-                    getSafeCallback().onFailure(new AuthenticationException("Some of the requested permissions were not granted."));
+                final boolean allScopesGranted = grantedScopes.containsAll(requestedScopes) || isGrantedIncrementally(grantedScopes);
+                reportPhase(Phase.SCOPE_CHECK, allScopesGranted ? Outcome.SUCCESS : Outcome.FAILURE, startNanos);
+                if (allScopesGranted) {
+                    if (isIdTokenAccepted(account)) {
+                        requestAuth0Token(account);
+                    }
+                    return;
+                }
+                final Set<Scope> notGrantedScopes = new HashSet<>(requestedScopes);
+                notGrantedScopes.removeAll(grantedScopes);
+                if (incrementalAuthorization && grantedBeforeScopeRequest == null && account.getEmail() != null && google != null) {
+                    Log.d(TAG, "Requesting the scopes that were not granted: " + notGrantedScopes.toString());
+                    grantedBeforeScopeRequest = new HashSet<>(grantedScopes);
+                    google.requestMissingScopes(account.getEmail(), notGrantedScopes.toArray(new Scope[notGrantedScopes.size()]));
+                    return;
                 }
+                Log.w(TAG, "Some scopes were not granted: " + notGrantedScopes.toString());
+                getSafeCallback().onFailure(new AuthenticationException("Some of the requested permissions were not granted."));
             }
 
             @Override
@@ -200,28 +775,123 @@ public class GoogleAuthProvider extends AuthProvider {
 
             @Override
             public void onError(Dialog errorDialog) {
-                getSafeCallback().onFailure(errorDialog);
+                failWithDialog(errorDialog, ERROR_CODE_CONNECTION, "Couldn't connect to the Google Play Services.");
+            }
+
+            @Override
+            public void onTimeout(Phase phase) {
+                failWithTimeout(phase);
             }
         };
     }
 
+    /**
+     * Checks if the requested scopes are covered by the ones granted before and after requesting the missing scopes.
+     */
+    private boolean isGrantedIncrementally(Set<Scope> grantedScopes) {
+        if (grantedBeforeScopeRequest == null) {
+            return false;
+        }
+        for (Scope scope : requestedScopes) {
+            if (!grantedScopes.contains(scope) && !grantedBeforeScopeRequest.contains(scope)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isIdTokenAccepted(GoogleSignInAccount account) {
+        if (idTokenVerifier == null) {
+            return true;
+        }
+        final IdTokenVerifier.Result result = idTokenVerifier.verify(account.getIdToken());
+        if (result == IdTokenVerifier.Result.VALID) {
+            return true;
+        }
+        if (!forcedSignIn && google != null) {
+            Log.d(TAG, "The Google ID token can't be used (" + result + "). Requesting a new sign in.");
+            forcedSignIn = true;
+            if (google.forceSignIn()) {
+                return false;
+            }
+        }
+        Log.w(TAG, "The Google ID token can't be used (" + result + ")");
+        getSafeCallback().onFailure(new AuthenticationException("The Google ID token is expired or wasn't issued for this application."));
+        return false;
+    }
+
+    private void addPendingCallback(@Nullable AuthCallback callback) {
+        if (callback != null && !pendingCallbacks.contains(callback)) {
+            pendingCallbacks.add(callback);
+        }
+    }
+
+    /**
+     * Ends the login in progress.
+     *
+     * @return the callbacks waiting for the login result, or an empty list when no login is in progress.
+     */
+    private List<AuthCallback> finishLogin() {
+        final List<AuthCallback> callbacks;
+        cancelTimeouts();
+        synchronized (pendingCallbacks) {
+            if (!loginInProgress) {
+                Log.w(TAG, "Ignoring a result received when no login was in progress");
+                return Collections.emptyList();
+            }
+            loginInProgress = false;
+            callbacks = new ArrayList<>(pendingCallbacks);
+            pendingCallbacks.clear();
+        }
+        return callbacks;
+    }
+
+    /**
+     * Ends the login in progress with an error the user must resolve with the given dialog.
+     * The callbacks that can tell errors apart receive the code and description too.
+     */
+    private void failWithDialog(Dialog dialog, @NonNull String code, @NonNull String description) {
+        for (AuthCallback callback : finishLogin()) {
+            if (callback instanceof DialogErrorCallback) {
+                ((DialogErrorCallback) callback).onFailure(dialog, code, description);
+            } else {
+                callback.onFailure(dialog);
+            }
+        }
+    }
+
+    /**
+     * Returns a callback that ends the login in progress and delivers its result to every caller that started it.
+     */
     private AuthCallback getSafeCallback() {
-        final AuthCallback callback = getCallback();
-        return callback != null ? callback : new AuthCallback() {
+        return new AuthCallback() {
             @Override
             public void onFailure(@NonNull Dialog dialog) {
-                Log.w(TAG, "Using callback when no auth session was running");
+                for (AuthCallback callback : finishLogin()) {
+                    callback.onFailure(dialog);
+                }
             }
 
             @Override
             public void onFailure(AuthenticationException exception) {
-                Log.w(TAG, "Using callback when no auth session was running");
+                for (AuthCallback callback : finishLogin()) {
+                    callback.onFailure(exception);
+                }
             }
 
             @Override
             public void onSuccess(@NonNull Credentials credentials) {
-                Log.w(TAG, "Using callback when no auth session was running");
+                for (AuthCallback callback : finishLogin()) {
+                    callback.onSuccess(credentials);
+                }
             }
         };
     }
+
+    /**
+     * AuthCallback that also receives the code and description of the errors resolved with a dialog.
+     */
+    private interface DialogErrorCallback extends AuthCallback {
+        void onFailure(@Nullable Dialog dialog, @NonNull String code, @NonNull String description);
+    }
 }
@@ -11,4 +11,6 @@ interface GoogleCallback {
     void onCancel();
 
     void onError(Dialog errorDialog);
+
+    void onTimeout(GoogleAuthMetrics.Phase phase);
 }
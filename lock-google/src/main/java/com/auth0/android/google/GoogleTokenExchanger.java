@@ -0,0 +1,27 @@
+package com.auth0.android.google;
+
+import android.support.annotation.NonNull;
+
+import com.auth0.android.callback.AuthenticationCallback;
+import com.auth0.android.result.Credentials;
+import com.google.android.gms.auth.api.signin.GoogleSignInAccount;
+
+import java.util.Map;
+
+/**
+ * Exchanges the Google account obtained on the device for Auth0 Credentials.
+ * By default the Google ID token is exchanged by the device using the Auth0 Authentication API.
+ * Implement it to hand the account (for example, its server auth code) to your own backend instead.
+ */
+public interface GoogleTokenExchanger {
+
+    /**
+     * Exchanges the given account for Auth0 Credentials. The callback must be called exactly once.
+     *
+     * @param account        the signed in Google account. Its server auth code is only available when requested with GoogleAuthProvider.requestServerAuthCode().
+     * @param connectionName the name of the Auth0 connection to authenticate with.
+     * @param parameters     the additional authentication parameters set in the provider.
+     * @param callback       to notify the exchange result.
+     */
+    void exchange(@NonNull GoogleSignInAccount account, @NonNull String connectionName, @NonNull Map<String, Object> parameters, @NonNull AuthenticationCallback<Credentials> callback);
+}
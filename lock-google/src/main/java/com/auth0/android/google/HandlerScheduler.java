@@ -0,0 +1,36 @@
+package com.auth0.android.google;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+
+/**
+ * Default Scheduler. Runs the tasks on the main thread.
+ * The delays are measured in uptime, which doesn't advance while the device is in deep sleep, so a task can run later
+ * than its delay by the wall clock. Nothing runs once the process is gone.
+ */
+class HandlerScheduler implements Scheduler {
+
+    private final Handler handler;
+
+    HandlerScheduler() {
+        this.handler = new Handler(Looper.getMainLooper());
+    }
+
+    @Override
+    public long now() {
+        return SystemClock.elapsedRealtime();
+    }
+
+    @Override
+    public void schedule(@NonNull Runnable task, long delayMillis) {
+        handler.removeCallbacks(task);
+        handler.postDelayed(task, delayMillis);
+    }
+
+    @Override
+    public void cancel(@NonNull Runnable task) {
+        handler.removeCallbacks(task);
+    }
+}
@@ -0,0 +1,283 @@
+package com.auth0.android.google;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes the payload of a Google ID token locally and checks its expiration and audience claims,
+ * so that tokens that Auth0 would reject are detected before making the exchange request.
+ * The signature is not verified, that's still done by Auth0.
+ * <p>
+ * The payload is decoded into a single byte array and scanned in place, without creating
+ * intermediate Strings or a JSON tree.
+ */
+class IdTokenVerifier {
+
+    enum Result {
+        VALID,
+        MALFORMED,
+        EXPIRED,
+        INVALID_AUDIENCE
+    }
+
+    /**
+     * Tokens expiring in less than this amount of time are considered expired, to leave room for the exchange request.
+     */
+    static final long EXPIRATION_LEEWAY_SECONDS = 30;
+
+    private static final byte[] EXP = {'e', 'x', 'p'};
+    private static final byte[] AUD = {'a', 'u', 'd'};
+    private static final int[] BASE64_URL = new int[128];
+
+    static {
+        for (int i = 0; i < BASE64_URL.length; i++) {
+            BASE64_URL[i] = -1;
+        }
+        final String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64_URL[alphabet.charAt(i)] = i;
+        }
+    }
+
+    private final byte[] audience;
+    private final Clock clock;
+
+    IdTokenVerifier(@NonNull String audience) {
+        this(audience, Clock.SYSTEM);
+    }
+
+    IdTokenVerifier(@NonNull String audience, @NonNull Clock clock) {
+        this.audience = audience.getBytes(Charset.forName("UTF-8"));
+        this.clock = clock;
+    }
+
+    /**
+     * Checks the given ID token.
+     *
+     * @param idToken the token to check.
+     * @return the verification result.
+     */
+    @NonNull
+    Result verify(@Nullable String idToken) {
+        if (idToken == null) {
+            return Result.MALFORMED;
+        }
+        final int payloadStart = idToken.indexOf('.') + 1;
+        final int payloadEnd = payloadStart == 0 ? -1 : idToken.indexOf('.', payloadStart);
+        if (payloadEnd == -1) {
+            return Result.MALFORMED;
+        }
+        final byte[] payload = new byte[(payloadEnd - payloadStart) * 3 / 4];
+        final int length = decodeBase64Url(idToken, payloadStart, payloadEnd, payload);
+        if (length == -1) {
+            return Result.MALFORMED;
+        }
+        return checkClaims(new Scanner(payload, length));
+    }
+
+    private Result checkClaims(Scanner json) {
+        long expiresAt = -1;
+        boolean audienceMatches = false;
+        if (!json.consume('{')) {
+            return Result.MALFORMED;
+        }
+        boolean first = true;
+        while (!json.consume('}')) {
+            if (!first && !json.consume(',')) {
+                return Result.MALFORMED;
+            }
+            first = false;
+            final int keyStart = json.stringStart();
+            final int keyEnd = json.skipString();
+            if (keyEnd == -1 || !json.consume(':')) {
+                return Result.MALFORMED;
+            }
+            if (json.equals(keyStart, keyEnd, EXP)) {
+                expiresAt = json.readLong();
+                if (expiresAt == -1) {
+                    return Result.MALFORMED;
+                }
+            } else if (json.equals(keyStart, keyEnd, AUD)) {
+                audienceMatches = readAudience(json);
+            } else if (!json.skipValue()) {
+                return Result.MALFORMED;
+            }
+        }
+        if (expiresAt == -1) {
+            return Result.MALFORMED;
+        }
+        final long now = TimeUnit.MILLISECONDS.toSeconds(clock.currentTimeMillis());
+        if (expiresAt <= now + EXPIRATION_LEEWAY_SECONDS) {
+            return Result.EXPIRED;
+        }
+        return audienceMatches ? Result.VALID : Result.INVALID_AUDIENCE;
+    }
+
+    private boolean readAudience(Scanner json) {
+        if (json.peek() != '[') {
+            final int start = json.stringStart();
+            final int end = json.skipString();
+            return end != -1 && json.equals(start, end, audience);
+        }
+        json.consume('[');
+        boolean matches = false;
+        boolean first = true;
+        while (!json.consume(']')) {
+            if (!first && !json.consume(',')) {
+                return false;
+            }
+            first = false;
+            final int start = json.stringStart();
+            final int end = json.skipString();
+            if (end == -1) {
+                return false;
+            }
+            matches |= json.equals(start, end, audience);
+        }
+        return matches;
+    }
+
+    /**
+     * Decodes a base64url encoded section of the given String, without padding.
+     *
+     * @return the number of decoded bytes, or -1 if the input is not valid.
+     */
+    static int decodeBase64Url(String input, int start, int end, byte[] output) {
+        int buffer = 0;
+        int bits = 0;
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            final char c = input.charAt(i);
+            final int value = c < BASE64_URL.length ? BASE64_URL[c] : -1;
+            if (value == -1) {
+                if (c == '=') {
+                    break;
+                }
+                return -1;
+            }
+            buffer = (buffer << 6) | value;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                if (length == output.length) {
+                    return -1;
+                }
+                output[length++] = (byte) (buffer >> bits);
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Minimal JSON tokenizer over a byte array. Only what's needed to walk the top level claims.
+     */
+    private static class Scanner {
+        private final byte[] data;
+        private final int length;
+        private int pos;
+
+        Scanner(byte[] data, int length) {
+            this.data = data;
+            this.length = length;
+        }
+
+        int peek() {
+            skipWhitespace();
+            return pos < length ? data[pos] : -1;
+        }
+
+        boolean consume(char expected) {
+            if (peek() == expected) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        int stringStart() {
+            return peek() == '"' ? pos + 1 : -1;
+        }
+
+        /**
+         * @return the index of the closing quote of the String at the current position, or -1 if there isn't one.
+         */
+        int skipString() {
+            if (!consume('"')) {
+                return -1;
+            }
+            while (pos < length) {
+                final byte b = data[pos++];
+                if (b == '\\') {
+                    pos++;
+                } else if (b == '"') {
+                    return pos - 1;
+                }
+            }
+            return -1;
+        }
+
+        long readLong() {
+            skipWhitespace();
+            long value = 0;
+            final int start = pos;
+            while (pos < length && data[pos] >= '0' && data[pos] <= '9') {
+                value = value * 10 + (data[pos++] - '0');
+            }
+            if (pos == start) {
+                return -1;
+            }
+            // Ignore any fraction or exponent part.
+            return skipValue() ? value : -1;
+        }
+
+        boolean skipValue() {
+            final int next = peek();
+            if (next == '"') {
+                return skipString() != -1;
+            }
+            int depth = 0;
+            while (pos < length) {
+                final byte b = data[pos];
+                if (b == '"') {
+                    if (skipString() == -1) {
+                        return false;
+                    }
+                    continue;
+                }
+                if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    if (depth == 0) {
+                        return true;
+                    }
+                    depth--;
+                } else if (b == ',' && depth == 0) {
+                    return true;
+                }
+                pos++;
+            }
+            return false;
+        }
+
+        boolean equals(int start, int end, byte[] expected) {
+            if (start == -1 || end - start != expected.length) {
+                return false;
+            }
+            for (int i = 0; i < expected.length; i++) {
+                if (data[start + i] != expected[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void skipWhitespace() {
+            while (pos < length && (data[pos] == ' ' || data[pos] == '\t' || data[pos] == '\n' || data[pos] == '\r')) {
+                pos++;
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.auth0.android.google;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.Uri;
+import android.support.annotation.NonNull;
+import android.util.Log;
+
+import com.google.android.gms.common.ConnectionResult;
+import com.google.android.gms.common.GoogleApiAvailability;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process wide cache of the Google Play Services availability status.
+ * A successful check is remembered until the Google Play Services package is added, replaced, changed or removed.
+ * Failed checks are never cached, so the status is checked again after the user resolves the error.
+ */
+public final class PlayServicesAvailabilityCache {
+
+    private static final String TAG = PlayServicesAvailabilityCache.class.getSimpleName();
+    private static PlayServicesAvailabilityCache instance;
+
+    private final GoogleApiAvailability apiAvailability;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final BroadcastReceiver packageReceiver;
+    private volatile boolean available;
+    private int generation;
+    private boolean receiverRegistered;
+
+    PlayServicesAvailabilityCache(@NonNull GoogleApiAvailability apiAvailability) {
+        this.apiAvailability = apiAvailability;
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.packageReceiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                final Uri data = intent.getData();
+                if (data != null && GoogleApiAvailability.GOOGLE_PLAY_SERVICES_PACKAGE.equals(data.getSchemeSpecificPart())) {
+                    Log.v(TAG, "Google Play Services package changed with action " + intent.getAction());
+                    invalidate();
+                }
+            }
+        };
+    }
+
+    /**
+     * Getter for the process wide instance of the cache.
+     *
+     * @return the shared cache instance.
+     */
+    @NonNull
+    public static synchronized PlayServicesAvailabilityCache getInstance() {
+        if (instance == null) {
+            instance = new PlayServicesAvailabilityCache(GoogleApiAvailability.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Checks if the Google Play Services required package is available in the device, using the cached status when possible.
+     *
+     * @param context a valid context to run the check with.
+     * @return a code int explaining whether the package is available or not.
+     */
+    int isGooglePlayServicesAvailable(@NonNull Context context) {
+        if (available) {
+            hits.incrementAndGet();
+            return ConnectionResult.SUCCESS;
+        }
+        misses.incrementAndGet();
+        final int checkGeneration = registerPackageReceiver(context);
+        final int status = apiAvailability.isGooglePlayServicesAvailable(context);
+        if (status == ConnectionResult.SUCCESS) {
+            synchronized (this) {
+                // Don't cache a result obtained before the package changed.
+                available = checkGeneration == generation;
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Forgets the cached status. The next availability check will query the Google Play Services package again.
+     */
+    public synchronized void invalidate() {
+        generation++;
+        available = false;
+    }
+
+    /**
+     * Getter for the number of availability checks answered from the cache.
+     *
+     * @return the number of cache hits.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Getter for the number of availability checks that had to query the Google Play Services package.
+     *
+     * @return the number of cache misses.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private synchronized int registerPackageReceiver(Context context) {
+        if (!receiverRegistered) {
+            final IntentFilter filter = new IntentFilter();
+            filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+            filter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+            filter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+            filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+            filter.addDataScheme("package");
+            final Context appContext = context.getApplicationContext();
+            (appContext != null ? appContext : context).registerReceiver(packageReceiver, filter);
+            receiverRegistered = true;
+        }
+        return generation;
+    }
+}
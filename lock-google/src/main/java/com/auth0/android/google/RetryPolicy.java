@@ -0,0 +1,132 @@
+package com.auth0.android.google;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.auth0.android.authentication.AuthenticationException;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Policy to retry a failed exchange of the Google token for Auth0 Credentials, without asking the user to sign in again.
+ * Network errors, 429 and 5xx responses are retried with an exponential backoff, until the maximum number of attempts
+ * is reached or the next attempt would start after the deadline. Any other error is returned right away.
+ * <p>
+ * Each delay is chosen at random between half and the whole backoff for that attempt, so that many clients don't retry at once.
+ */
+public class RetryPolicy {
+
+    /**
+     * Listener notified of the attempts made to exchange the token.
+     * Calls happen on the thread that delivered the Auth0 response.
+     */
+    public interface Listener {
+
+        /**
+         * Called when a failed attempt is going to be retried.
+         *
+         * @param attempt     the number of the failed attempt, starting at 1.
+         * @param delayMillis the time to wait before the next attempt, in milliseconds.
+         * @param error       the cause of the failure.
+         */
+        void onRetry(int attempt, long delayMillis, @NonNull AuthenticationException error);
+
+        /**
+         * Called when the exchange ends.
+         *
+         * @param attempts  the number of attempts made.
+         * @param succeeded whether the last attempt succeeded.
+         */
+        void onExchangeFinished(int attempts, boolean succeeded);
+    }
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long deadlineMillis;
+    private final Random random;
+    private Listener listener;
+
+    /**
+     * Creates a new retry policy.
+     *
+     * @param maxAttempts          the maximum number of attempts, including the first one.
+     * @param initialBackoffMillis the backoff before the second attempt, in milliseconds. It's doubled on each retry.
+     * @param maxBackoffMillis     the maximum backoff between two attempts, in milliseconds.
+     * @param deadlineMillis       the maximum time since the first attempt to start a new one, in milliseconds.
+     */
+    public RetryPolicy(int maxAttempts, long initialBackoffMillis, long maxBackoffMillis, long deadlineMillis) {
+        this(maxAttempts, initialBackoffMillis, maxBackoffMillis, deadlineMillis, new Random());
+    }
+
+    RetryPolicy(int maxAttempts, long initialBackoffMillis, long maxBackoffMillis, long deadlineMillis, @NonNull Random random) {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.deadlineMillis = deadlineMillis;
+        this.random = random;
+    }
+
+    /**
+     * Sets the listener to notify of the exchange attempts.
+     *
+     * @param listener the listener to notify, or null to stop notifying.
+     */
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Whether the exchange should be retried after the given error. Network errors, 429 and 5xx responses are retried.
+     * Override it to change the classification.
+     *
+     * @param error the cause of the failure.
+     * @return true if the error is transient and the exchange can be retried.
+     */
+    public boolean isRetryable(@NonNull AuthenticationException error) {
+        final int statusCode = error.getStatusCode();
+        if (statusCode == 429 || statusCode >= 500) {
+            return true;
+        }
+        Throwable cause = error.getCause();
+        while (cause != null) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+
+    /**
+     * Decides if the exchange should be retried after a failed attempt.
+     *
+     * @param attempt       the number of the failed attempt, starting at 1.
+     * @param elapsedMillis the time since the first attempt started, in milliseconds.
+     * @param error         the cause of the failure.
+     * @return the time to wait before the next attempt in milliseconds, or -1 if it shouldn't be retried.
+     */
+    long nextDelayMillis(int attempt, long elapsedMillis, @NonNull AuthenticationException error) {
+        if (attempt >= maxAttempts || !isRetryable(error)) {
+            return -1;
+        }
+        final long backoff = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 30));
+        final long delay = backoff / 2 + (long) (random.nextDouble() * (backoff - backoff / 2));
+        return elapsedMillis + delay <= deadlineMillis ? delay : -1;
+    }
+
+    void onRetry(int attempt, long delayMillis, AuthenticationException error) {
+        final Listener listener = this.listener;
+        if (listener != null) {
+            listener.onRetry(attempt, delayMillis, error);
+        }
+    }
+
+    void onExchangeFinished(int attempts, boolean succeeded) {
+        final Listener listener = this.listener;
+        if (listener != null) {
+            listener.onExchangeFinished(attempts, succeeded);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.auth0.android.google;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Runs delayed tasks for the background work of this library, like the Credentials refresh.
+ * The default implementation posts the tasks to the main thread. Provide your own to run them
+ * on a different thread, or to control the time in tests.
+ */
+public interface Scheduler {
+
+    /**
+     * @return the current time of this scheduler, in milliseconds. Only the difference between two values is meaningful.
+     */
+    long now();
+
+    /**
+     * Schedules a task to run once after the given delay. Scheduling a task that is already pending replaces it.
+     *
+     * @param task        the task to run.
+     * @param delayMillis the time to wait before running it, in milliseconds.
+     */
+    void schedule(@NonNull Runnable task, long delayMillis);
+
+    /**
+     * Cancels a pending task. Does nothing if the task is not pending.
+     *
+     * @param task the task to cancel.
+     */
+    void cancel(@NonNull Runnable task);
+}
@@ -0,0 +1,174 @@
+package com.auth0.android.google;
+
+import android.net.Uri;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.auth0.android.authentication.AuthenticationAPIClient;
+import com.auth0.android.authentication.AuthenticationException;
+import com.auth0.android.callback.AuthenticationCallback;
+import com.auth0.android.result.Credentials;
+import com.auth0.android.result.UserIdentity;
+import com.auth0.android.result.UserProfile;
+import com.google.android.gms.auth.api.signin.GoogleSignInAccount;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Obtains the UserProfile of the logged in user as part of the login, so it's delivered together with the Credentials.
+ * The profile is either requested to Auth0 with the new access token or built locally from the Google account claims,
+ * which needs no request at all. Profiles are cached by Google account and connection for the given time to live.
+ */
+public class UserProfileFetcher {
+
+    public interface Listener {
+        /**
+         * Called on the main thread with the profile of the user, right before the Credentials are delivered.
+         *
+         * @param credentials the Credentials of the login.
+         * @param profile     the profile of the logged in user.
+         */
+        void onUserProfile(@NonNull Credentials credentials, @NonNull UserProfile profile);
+
+        /**
+         * Called on the main thread when the profile can't be obtained, right before the Credentials are delivered.
+         * The login itself is not failed.
+         *
+         * @param credentials the Credentials of the login.
+         * @param error       the reason of the failure.
+         */
+        void onUserProfileFailed(@NonNull Credentials credentials, @NonNull AuthenticationException error);
+    }
+
+    private static final String GOOGLE_USER_ID_PREFIX = "google-oauth2|";
+
+    private final AuthenticationAPIClient client;
+    private final ExpiringLruCache<String, UserProfile> cache;
+    private final long ttlMillis;
+    private Listener listener;
+    private boolean fromGoogleAccount;
+
+    /**
+     * Creates a new fetcher that requests the profile to Auth0.
+     *
+     * @param client    the Auth0 AuthenticationAPIClient used to request the profile.
+     * @param maxSize   the maximum number of profiles to cache.
+     * @param ttlMillis the time in milliseconds to keep a profile. Use 0 to disable the cache.
+     */
+    public UserProfileFetcher(@NonNull AuthenticationAPIClient client, int maxSize, long ttlMillis) {
+        this(client, maxSize, ttlMillis, Clock.SYSTEM);
+    }
+
+    UserProfileFetcher(@NonNull AuthenticationAPIClient client, int maxSize, long ttlMillis, @NonNull Clock clock) {
+        this.client = client;
+        this.cache = new ExpiringLruCache<>(maxSize, clock);
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Sets the listener that receives the profiles.
+     *
+     * @param listener the listener to notify.
+     */
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Whether the profile should be built from the claims of the Google account instead of requested to Auth0.
+     * The built profile has the Google id, names, email and picture, but none of the Auth0 metadata.
+     * The email is only part of the Google account when the {@link com.google.android.gms.common.Scopes#EMAIL} scope is requested.
+     * By default it's false.
+     *
+     * @param fromGoogleAccount flag to build the profile from the Google account.
+     */
+    public void fromGoogleAccount(boolean fromGoogleAccount) {
+        this.fromGoogleAccount = fromGoogleAccount;
+    }
+
+    /**
+     * Removes all the cached profiles. Call it when the user logs out.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * @return the number of profiles taken from the cache.
+     */
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * @return the number of profiles that had to be obtained again.
+     */
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    @Nullable
+    Listener getListener() {
+        return listener;
+    }
+
+    @Nullable
+    UserProfile getCached(@NonNull GoogleSignInAccount account, @NonNull String connection) {
+        final String key = keyFor(account, connection);
+        return key == null ? null : cache.get(key);
+    }
+
+    /**
+     * Obtains the profile for the given account, ignoring the cache.
+     */
+    void fetch(@NonNull final GoogleSignInAccount account, @NonNull final String connection, @NonNull Credentials credentials, @NonNull final AuthenticationCallback<UserProfile> callback) {
+        if (fromGoogleAccount) {
+            final UserProfile profile = fromAccount(account);
+            put(account, connection, profile);
+            callback.onSuccess(profile);
+            return;
+        }
+        final String accessToken = credentials.getAccessToken();
+        if (accessToken == null) {
+            callback.onFailure(new AuthenticationException("The Credentials have no access token to request the user profile with."));
+            return;
+        }
+        client.userInfo(accessToken)
+                .start(new AuthenticationCallback<UserProfile>() {
+                    @Override
+                    public void onSuccess(UserProfile profile) {
+                        put(account, connection, profile);
+                        callback.onSuccess(profile);
+                    }
+
+                    @Override
+                    public void onFailure(AuthenticationException error) {
+                        callback.onFailure(error);
+                    }
+                });
+    }
+
+    private void put(GoogleSignInAccount account, String connection, UserProfile profile) {
+        final String key = keyFor(account, connection);
+        if (key != null && profile != null) {
+            cache.put(key, profile, ttlMillis);
+        }
+    }
+
+    @Nullable
+    private static String keyFor(GoogleSignInAccount account, String connection) {
+        final String id = account.getId();
+        return id == null ? null : id + '\n' + connection;
+    }
+
+    @NonNull
+    static UserProfile fromAccount(@NonNull GoogleSignInAccount account) {
+        final Uri photoUrl = account.getPhotoUrl();
+        final String email = account.getEmail();
+        final Map<String, Object> empty = Collections.emptyMap();
+        return new UserProfile(account.getId() == null ? null : GOOGLE_USER_ID_PREFIX + account.getId(), account.getDisplayName(), null,
+                photoUrl == null ? null : photoUrl.toString(), email, email != null, account.getFamilyName(), null,
+                Collections.<UserIdentity>emptyList(), empty, empty, empty, account.getGivenName());
+    }
+}
@@ -0,0 +1,54 @@
+package com.auth0.android.google;
+
+import com.auth0.android.authentication.AuthenticationAPIClient;
+import com.auth0.android.callback.AuthenticationCallback;
+import com.auth0.android.request.AuthenticationRequest;
+import com.auth0.android.result.Credentials;
+import com.google.android.gms.auth.api.signin.GoogleSignInAccount;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class Auth0TokenExchangerTest {
+
+    private static final String TOKEN = "someR.andOm.Token";
+
+    @Mock
+    private AuthenticationAPIClient client;
+    @Mock
+    private AuthenticationRequest request;
+    @Mock
+    private GoogleSignInAccount account;
+    @Mock
+    private AuthenticationCallback<Credentials> callback;
+
+    private Auth0TokenExchanger exchanger;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        exchanger = new Auth0TokenExchanger(client);
+        when(account.getIdToken()).thenReturn(TOKEN);
+        when(client.loginWithOAuthAccessToken(TOKEN, "my-connection")).thenReturn(request);
+        when(request.addAuthenticationParameters(anyMap())).thenReturn(request);
+    }
+
+    @Test
+    public void shouldExchangeTheIdTokenWithAuth0() throws Exception {
+        final Map<String, Object> parameters = Collections.<String, Object>singletonMap("key", "value");
+        exchanger.exchange(account, "my-connection", parameters, callback);
+
+        verify(client).loginWithOAuthAccessToken(TOKEN, "my-connection");
+        verify(request).addAuthenticationParameters(parameters);
+        verify(request).start(callback);
+    }
+}
@@ -0,0 +1,265 @@
+package com.auth0.android.google;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class AuthFutureTest {
+
+    @Mock
+    private AuthFuture.Callback<String> callback;
+
+    private AuthFuture<String> future;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        future = new AuthFuture<>();
+    }
+
+    @Test
+    public void shouldNotifyTheCallbacksWhenCompleted() throws Exception {
+        future.addCallback(callback);
+        verify(callback, never()).onSuccess(any(String.class));
+
+        assertThat(future.complete("value"), is(true));
+
+        verify(callback).onSuccess("value");
+        assertThat(future.isDone(), is(true));
+        assertThat(future.get(), is("value"));
+    }
+
+    @Test
+    public void shouldNotifyCallbacksAddedAfterCompletion() throws Exception {
+        future.complete("value");
+        future.addCallback(callback);
+
+        verify(callback).onSuccess("value");
+    }
+
+    @Test
+    public void shouldCompleteOnlyOnce() throws Exception {
+        future.addCallback(callback);
+        future.complete("value");
+
+        assertThat(future.complete("other"), is(false));
+        assertThat(future.fail(new Exception()), is(false));
+        assertThat(future.cancel(false), is(false));
+        verify(callback).onSuccess("value");
+        verify(callback, never()).onFailure(any(Throwable.class));
+        assertThat(future.get(), is("value"));
+    }
+
+    @Test
+    public void shouldThrowTheFailureFromGet() throws Exception {
+        final Exception error = new Exception("failed");
+        future.addCallback(callback);
+        future.fail(error);
+
+        verify(callback).onFailure(error);
+        try {
+            future.get();
+            fail("Expected an ExecutionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(sameInstance((Throwable) error)));
+        }
+    }
+
+    @Test
+    public void shouldFailWithCancellationWhenCanceled() throws Exception {
+        future.addCallback(callback);
+
+        assertThat(future.cancel(true), is(true));
+
+        assertThat(future.isCancelled(), is(true));
+        verify(callback).onFailure(any(CancellationException.class));
+        try {
+            future.get();
+            fail("Expected a CancellationException");
+        } catch (CancellationException ignored) {
+        }
+    }
+
+    @Test
+    public void shouldTimeOutWaitingForAPendingFuture() throws Exception {
+        try {
+            future.get(10, TimeUnit.MILLISECONDS);
+            fail("Expected a TimeoutException");
+        } catch (TimeoutException ignored) {
+        }
+    }
+
+    @Test
+    public void shouldWaitForTheResultFromAnotherThread() throws Exception {
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                future.complete("value");
+            }
+        }).start();
+
+        assertThat(future.get(5, TimeUnit.SECONDS), is("value"));
+    }
+
+    @Test
+    public void shouldRunTheCallbacksOnTheGivenExecutor() throws Exception {
+        final QueueExecutor executor = new QueueExecutor();
+        future.addCallback(callback, executor);
+        future.complete("value");
+        verify(callback, never()).onSuccess(any(String.class));
+
+        executor.runAll();
+        verify(callback).onSuccess("value");
+    }
+
+    @Test
+    public void shouldTransformTheValue() throws Exception {
+        final AuthFuture<Integer> length = future.transform(new AuthFuture.Transformation<String, Integer>() {
+            @Override
+            public Integer apply(String result) throws Exception {
+                return result.length();
+            }
+        });
+        future.complete("value");
+
+        assertThat(length.get(), is(5));
+    }
+
+    @Test
+    public void shouldFailTheTransformedFutureWhenTheTransformationThrows() throws Exception {
+        final IllegalStateException error = new IllegalStateException();
+        final AuthFuture<Integer> length = future.transform(new AuthFuture.Transformation<String, Integer>() {
+            @Override
+            public Integer apply(String result) throws Exception {
+                throw error;
+            }
+        });
+        future.complete("value");
+
+        try {
+            length.get();
+            fail("Expected an ExecutionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(sameInstance((Throwable) error)));
+        }
+    }
+
+    @Test
+    public void shouldPropagateTheFailureToTheTransformedFuture() throws Exception {
+        final AuthFuture<Integer> length = future.transform(new AuthFuture.Transformation<String, Integer>() {
+            @Override
+            public Integer apply(String result) throws Exception {
+                return result.length();
+            }
+        });
+        future.fail(new Exception("failed"));
+
+        try {
+            length.get();
+            fail("Expected an ExecutionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause().getMessage(), is("failed"));
+        }
+    }
+
+    @Test
+    public void shouldChainAnAsyncOperation() throws Exception {
+        final AuthFuture<Integer> chained = new AuthFuture<>();
+        final AuthFuture<Integer> next = future.transformAsync(new AuthFuture.AsyncTransformation<String, Integer>() {
+            @Override
+            public AuthFuture<Integer> apply(String result) throws Exception {
+                return chained;
+            }
+        });
+        future.complete("value");
+        assertThat(next.isDone(), is(false));
+
+        chained.complete(42);
+        assertThat(next.get(), is(42));
+    }
+
+    @Test
+    public void shouldCancelTheWholeChainWhenTheLastFutureIsCanceled() throws Exception {
+        final AuthFuture<Integer> chained = new AuthFuture<>();
+        final AuthFuture<Integer> next = future.transformAsync(new AuthFuture.AsyncTransformation<String, Integer>() {
+            @Override
+            public AuthFuture<Integer> apply(String result) throws Exception {
+                return chained;
+            }
+        });
+        future.complete("value");
+
+        next.cancel(false);
+
+        assertThat(chained.isCancelled(), is(true));
+        assertThat(next.isCancelled(), is(true));
+    }
+
+    @Test
+    public void shouldCancelTheSourceWhenTheTransformedFutureIsCanceled() throws Exception {
+        final AuthFuture<Integer> length = future.transform(new AuthFuture.Transformation<String, Integer>() {
+            @Override
+            public Integer apply(String result) throws Exception {
+                return result.length();
+            }
+        });
+
+        length.cancel(false);
+
+        assertThat(future.isCancelled(), is(true));
+    }
+
+    @Test
+    public void shouldCancelTheTransformedFutureWhenTheSourceIsCanceled() throws Exception {
+        final AuthFuture<Integer> length = future.transform(new AuthFuture.Transformation<String, Integer>() {
+            @Override
+            public Integer apply(String result) throws Exception {
+                return result.length();
+            }
+        });
+
+        future.cancel(false);
+
+        assertThat(length.isCancelled(), is(true));
+        try {
+            length.get();
+            fail("Expected a CancellationException");
+        } catch (Exception e) {
+            assertThat(e, is(instanceOf(CancellationException.class)));
+        }
+    }
+
+    private static class QueueExecutor implements Executor {
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            for (Runnable task : tasks) {
+                task.run();
+            }
+            tasks.clear();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.auth0.android.google;
+
+import com.auth0.android.result.Credentials;
+import com.google.android.gms.common.Scopes;
+import com.google.android.gms.common.api.Scope;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class CredentialsCacheTest {
+
+    private static final long TTL = TimeUnit.HOURS.toMillis(1);
+
+    private FakeClock clock;
+    private CredentialsCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        clock = new FakeClock();
+        cache = new CredentialsCache(2, TTL, clock);
+    }
+
+    @Test
+    public void shouldReturnCachedCredentials() throws Exception {
+        cache.put("key", credentialsExpiringIn(3600L));
+
+        Credentials cached = cache.get("key");
+        assertThat(cached.getIdToken(), is("idToken"));
+        assertThat(cached.getAccessToken(), is("accessToken"));
+        assertThat(cached.getType(), is("bearer"));
+        assertThat(cached.getRefreshToken(), is("refreshToken"));
+        assertThat(cached.getExpiresIn(), is(3600L));
+        assertThat(cache.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void shouldReturnCachedCredentialsWithTheRemainingLifetime() throws Exception {
+        cache.put("key", credentialsExpiringIn(3600L));
+        clock.advance(TimeUnit.MINUTES.toMillis(50));
+
+        assertThat(cache.get("key").getExpiresIn(), is(600L));
+    }
+
+    @Test
+    public void shouldReturnCredentialsWithoutExpirationAsCached() throws Exception {
+        Credentials credentials = credentialsExpiringIn(null);
+        cache.put("key", credentials);
+
+        assertThat(cache.get("key"), is(sameInstance(credentials)));
+    }
+
+    @Test
+    public void shouldExpireWithTheWallClockWhenTheDeviceSlept() throws Exception {
+        cache.put("key", credentialsExpiringIn(3600L));
+        clock.sleep(TimeUnit.HOURS.toMillis(2));
+
+        assertThat(cache.get("key"), is(nullValue()));
+        assertThat(cache.getHitCount(), is(0L));
+        assertThat(cache.getMissCount(), is(1L));
+        assertThat(cache.getExpirationCount(), is(1L));
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void shouldMissUnknownKey() throws Exception {
+        assertThat(cache.get("key"), is(nullValue()));
+        assertThat(cache.getMissCount(), is(1L));
+    }
+
+    @Test
+    public void shouldExpireWithCredentialsExpiration() throws Exception {
+        cache.put("key", credentialsExpiringIn(120L));
+        clock.advance(TimeUnit.SECONDS.toMillis(120) - CredentialsCache.EXPIRATION_LEEWAY_MS - 1);
+        assertThat(cache.get("key"), is(not(nullValue())));
+
+        clock.advance(1);
+        assertThat(cache.get("key"), is(nullValue()));
+        assertThat(cache.getExpirationCount(), is(1L));
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void shouldExpireWithTimeToLive() throws Exception {
+        cache.put("key", credentialsExpiringIn(null));
+        clock.advance(TTL);
+
+        assertThat(cache.get("key"), is(nullValue()));
+    }
+
+    @Test
+    public void shouldNotCacheCredentialsAboutToExpire() throws Exception {
+        cache.put("key", credentialsExpiringIn(30L));
+
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed() throws Exception {
+        cache.put("a", credentialsExpiringIn(3600L));
+        cache.put("b", credentialsExpiringIn(3600L));
+        cache.get("a");
+        cache.put("c", credentialsExpiringIn(3600L));
+
+        assertThat(cache.get("a"), is(not(nullValue())));
+        assertThat(cache.get("b"), is(nullValue()));
+        assertThat(cache.get("c"), is(not(nullValue())));
+        assertThat(cache.getEvictionCount(), is(1L));
+    }
+
+    @Test
+    public void shouldClear() throws Exception {
+        cache.put("key", credentialsExpiringIn(3600L));
+        cache.clear();
+
+        assertThat(cache.get("key"), is(nullValue()));
+    }
+
+    @Test
+    public void shouldCreateKeyRegardlessOfScopesAndParametersOrder() throws Exception {
+        Scope email = new Scope(Scopes.EMAIL);
+        Scope profile = new Scope(Scopes.PROFILE);
+        Map<String, Object> first = new HashMap<>();
+        first.put("a", "1");
+        first.put("b", "2");
+        Map<String, Object> second = new HashMap<>();
+        second.put("b", "2");
+        second.put("a", "1");
+
+        String key1 = CredentialsCache.keyFor("id", "google-oauth2", new Scope[]{email, profile}, first);
+        String key2 = CredentialsCache.keyFor("id", "google-oauth2", new Scope[]{profile, email}, second);
+
+        assertThat(key1, is(key2));
+    }
+
+    @Test
+    public void shouldCreateDifferentKeysForDifferentAccounts() throws Exception {
+        Scope[] scopes = new Scope[]{new Scope(Scopes.EMAIL)};
+        Map<String, Object> parameters = Collections.emptyMap();
+
+        String key1 = CredentialsCache.keyFor("id1", "google-oauth2", scopes, parameters);
+        String key2 = CredentialsCache.keyFor("id2", "google-oauth2", scopes, parameters);
+
+        assertThat(key1, is(not(key2)));
+    }
+
+    private static Credentials credentialsExpiringIn(Long seconds) {
+        return new Credentials("idToken", "accessToken", "bearer", "refreshToken", seconds);
+    }
+
+    private static class FakeClock implements Clock {
+        private long now;
+        private long sleptMillis;
+
+        @Override
+        public long nanoTime() {
+            return now;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(now) + sleptMillis;
+        }
+
+        void advance(long millis) {
+            now += TimeUnit.MILLISECONDS.toNanos(millis);
+        }
+
+        /**
+         * Moves the wall clock forward only, like a device in deep sleep where the monotonic clock stops.
+         */
+        void sleep(long millis) {
+            sleptMillis += millis;
+        }
+    }
+}
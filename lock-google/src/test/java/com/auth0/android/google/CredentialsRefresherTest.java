@@ -0,0 +1,273 @@
+package com.auth0.android.google;
+
+import com.auth0.android.authentication.AuthenticationAPIClient;
+import com.auth0.android.authentication.AuthenticationException;
+import com.auth0.android.callback.BaseCallback;
+import com.auth0.android.request.ParameterizableRequest;
+import com.auth0.android.result.Credentials;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CredentialsRefresherTest {
+
+    private static final long ONE_HOUR = 3600L;
+
+    @Mock
+    private AuthenticationAPIClient client;
+    @Mock
+    private ParameterizableRequest<Credentials, AuthenticationException> renewRequest;
+    @Mock
+    private CredentialsRefresher.Listener listener;
+    @Mock
+    private Random random;
+
+    private FakeScheduler scheduler;
+    private FakeClock clock;
+    private CredentialsRefresher refresher;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        scheduler = new FakeScheduler();
+        clock = new FakeClock();
+        refresher = new CredentialsRefresher(client, scheduler, random, clock);
+        refresher.setJitter(0);
+        refresher.setBatchWindow(0);
+        refresher.setListener(listener);
+        when(client.renewAuth(anyString())).thenReturn(renewRequest);
+    }
+
+    @Test
+    public void shouldNotTrackCredentialsWithoutRefreshToken() throws Exception {
+        refresher.track("key", new Credentials("idToken", "accessToken", "bearer", null, ONE_HOUR), null);
+
+        assertThat(refresher.size(), is(0));
+        assertThat(scheduler.pendingCount(), is(0));
+    }
+
+    @Test
+    public void shouldRefreshBeforeTheCredentialsExpire() throws Exception {
+        refresher.track("key", credentials("refreshToken", ONE_HOUR), null);
+
+        scheduler.advance(TimeUnit.SECONDS.toMillis(ONE_HOUR) - CredentialsRefresher.DEFAULT_REFRESH_LEEWAY_MS - 1);
+        verify(client, never()).renewAuth(anyString());
+
+        scheduler.advance(1);
+        verify(client).renewAuth("refreshToken");
+    }
+
+    @Test
+    public void shouldTrackAndCacheTheRefreshedCredentials() throws Exception {
+        final CredentialsCache cache = new CredentialsCache(1, TimeUnit.DAYS.toMillis(1));
+        final Credentials renewed = credentials("newRefreshToken", ONE_HOUR);
+        shouldRenewWith(renewed);
+        refresher.track("key", credentials("refreshToken", ONE_HOUR), cache);
+
+        scheduler.advance(TimeUnit.SECONDS.toMillis(ONE_HOUR));
+
+        verify(listener).onCredentialsRefreshed(renewed);
+        assertThat(cache.get("key").getRefreshToken(), is("newRefreshToken"));
+        assertThat(refresher.size(), is(1));
+        assertThat(scheduler.pendingCount(), is(1));
+    }
+
+    @Test
+    public void shouldKeepTheRefreshTokenWhenItIsNotRotated() throws Exception {
+        shouldRenewWith(credentials(null, ONE_HOUR));
+        refresher.track("key", credentials("refreshToken", ONE_HOUR), null);
+
+        scheduler.advance(TimeUnit.SECONDS.toMillis(ONE_HOUR));
+        scheduler.advance(TimeUnit.SECONDS.toMillis(ONE_HOUR));
+
+        final ArgumentCaptor<Credentials> captor = ArgumentCaptor.forClass(Credentials.class);
+        verify(listener, times(2)).onCredentialsRefreshed(captor.capture());
+        assertThat(captor.getValue().getRefreshToken(), is("refreshToken"));
+        verify(client, times(2)).renewAuth("refreshToken");
+    }
+
+    @Test
+    public void shouldStopTrackingWhenTheRefreshFails() throws Exception {
+        final AuthenticationException error = new AuthenticationException("error");
+        shouldFailRenewWith(error);
+        final Credentials credentials = credentials("refreshToken", ONE_HOUR);
+        refresher.track("key", credentials, null);
+
+        scheduler.advance(TimeUnit.SECONDS.toMillis(ONE_HOUR));
+
+        verify(listener).onRefreshFailed(credentials, error);
+        assertThat(refresher.size(), is(0));
+        assertThat(scheduler.pendingCount(), is(0));
+    }
+
+    @Test
+    public void shouldBatchRefreshesDueWithinTheWindow() throws Exception {
+        refresher.setBatchWindow(TimeUnit.MINUTES.toMillis(1));
+        refresher.track("first", credentials("firstRefreshToken", ONE_HOUR), null);
+        refresher.track("second", credentials("secondRefreshToken", ONE_HOUR + 30), null);
+
+        scheduler.advance(TimeUnit.SECONDS.toMillis(ONE_HOUR) - CredentialsRefresher.DEFAULT_REFRESH_LEEWAY_MS);
+
+        verify(client).renewAuth("firstRefreshToken");
+        verify(client).renewAuth("secondRefreshToken");
+        assertThat(scheduler.scheduleCount, is(1));
+    }
+
+    @Test
+    public void shouldNotBatchRefreshesDueOutsideTheWindow() throws Exception {
+        refresher.setBatchWindow(TimeUnit.MINUTES.toMillis(1));
+        refresher.track("first", credentials("firstRefreshToken", ONE_HOUR), null);
+        refresher.track("second", credentials("secondRefreshToken", ONE_HOUR + 120), null);
+
+        scheduler.advance(TimeUnit.SECONDS.toMillis(ONE_HOUR) - CredentialsRefresher.DEFAULT_REFRESH_LEEWAY_MS);
+
+        verify(client).renewAuth("firstRefreshToken");
+        verify(client, never()).renewAuth("secondRefreshToken");
+        assertThat(scheduler.pendingCount(), is(1));
+    }
+
+    @Test
+    public void shouldMoveTheRefreshAheadByTheJitter() throws Exception {
+        refresher.setJitter(TimeUnit.MINUTES.toMillis(2));
+        when(random.nextDouble()).thenReturn(0.5);
+        refresher.track("key", credentials("refreshToken", ONE_HOUR), null);
+
+        scheduler.advance(TimeUnit.SECONDS.toMillis(ONE_HOUR) - CredentialsRefresher.DEFAULT_REFRESH_LEEWAY_MS - TimeUnit.MINUTES.toMillis(1) - 1);
+        verify(client, never()).renewAuth(anyString());
+
+        scheduler.advance(1);
+        verify(client).renewAuth("refreshToken");
+    }
+
+    @Test
+    public void shouldRefreshShortLivedCredentialsHalfwayThroughTheirLifetime() throws Exception {
+        refresher.track("key", credentials("refreshToken", 60L), null);
+
+        scheduler.advance(TimeUnit.SECONDS.toMillis(30) - 1);
+        verify(client, never()).renewAuth(anyString());
+
+        scheduler.advance(1);
+        verify(client).renewAuth("refreshToken");
+    }
+
+    @Test
+    public void shouldCancelTheRefreshOnClear() throws Exception {
+        refresher.track("key", credentials("refreshToken", ONE_HOUR), null);
+        refresher.clear();
+
+        scheduler.advance(TimeUnit.SECONDS.toMillis(ONE_HOUR));
+        verify(client, never()).renewAuth(anyString());
+        assertThat(refresher.size(), is(0));
+    }
+
+    @Test
+    public void shouldIgnoreRefreshResultAfterClear() throws Exception {
+        final BaseCallback<Credentials, AuthenticationException>[] pendingCallback = captureRenewCallback();
+        refresher.track("key", credentials("refreshToken", ONE_HOUR), null);
+        scheduler.advance(TimeUnit.SECONDS.toMillis(ONE_HOUR));
+        refresher.clear();
+
+        pendingCallback[0].onSuccess(credentials("newRefreshToken", ONE_HOUR));
+
+        verify(listener, never()).onCredentialsRefreshed(any(Credentials.class));
+        assertThat(refresher.size(), is(0));
+    }
+
+    @Test
+    public void shouldRefreshWhenTheWallClockPassedTheRefreshTime() throws Exception {
+        refresher.track("key", credentials("refreshToken", ONE_HOUR), null);
+        // The device slept, the scheduled refresh didn't run.
+        clock.millis += TimeUnit.SECONDS.toMillis(ONE_HOUR);
+
+        refresher.refreshIfDue();
+
+        verify(client).renewAuth("refreshToken");
+        assertThat(scheduler.pendingCount(), is(0));
+    }
+
+    @Test
+    public void shouldNotRefreshBeforeTheRefreshTime() throws Exception {
+        refresher.track("key", credentials("refreshToken", ONE_HOUR), null);
+        clock.millis += TimeUnit.SECONDS.toMillis(ONE_HOUR) - CredentialsRefresher.DEFAULT_REFRESH_LEEWAY_MS - 1;
+
+        refresher.refreshIfDue();
+
+        verify(client, never()).renewAuth(anyString());
+        assertThat(scheduler.pendingCount(), is(1));
+    }
+
+    private static Credentials credentials(String refreshToken, long expiresIn) {
+        return new Credentials("idToken", "accessToken", "bearer", refreshToken, expiresIn);
+    }
+
+    @SuppressWarnings("unchecked")
+    private BaseCallback<Credentials, AuthenticationException>[] captureRenewCallback() {
+        final BaseCallback<Credentials, AuthenticationException>[] callback = new BaseCallback[1];
+        doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                callback[0] = (BaseCallback<Credentials, AuthenticationException>) invocation.getArguments()[0];
+                return null;
+            }
+        }).when(renewRequest).start(Matchers.<BaseCallback<Credentials, AuthenticationException>>any());
+        return callback;
+    }
+
+    private void shouldRenewWith(final Credentials credentials) {
+        doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                //noinspection unchecked
+                BaseCallback<Credentials, AuthenticationException> callback = (BaseCallback<Credentials, AuthenticationException>) invocation.getArguments()[0];
+                callback.onSuccess(credentials);
+                return null;
+            }
+        }).when(renewRequest).start(Matchers.<BaseCallback<Credentials, AuthenticationException>>any());
+    }
+
+    private void shouldFailRenewWith(final AuthenticationException error) {
+        doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                //noinspection unchecked
+                BaseCallback<Credentials, AuthenticationException> callback = (BaseCallback<Credentials, AuthenticationException>) invocation.getArguments()[0];
+                callback.onFailure(error);
+                return null;
+            }
+        }).when(renewRequest).start(Matchers.<BaseCallback<Credentials, AuthenticationException>>any());
+    }
+
+    private static class FakeClock implements Clock {
+        long millis;
+
+        @Override
+        public long nanoTime() {
+            return TimeUnit.MILLISECONDS.toNanos(millis);
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return millis;
+        }
+    }
+}
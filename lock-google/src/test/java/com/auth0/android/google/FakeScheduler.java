@@ -0,0 +1,60 @@
+package com.auth0.android.google;
+
+import android.support.annotation.NonNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Scheduler that only runs the tasks when the time is advanced.
+ */
+public class FakeScheduler implements Scheduler {
+    private final Map<Runnable, Long> pendingTasks = new LinkedHashMap<>();
+    private long now;
+    int scheduleCount;
+
+    @Override
+    public long now() {
+        return now;
+    }
+
+    @Override
+    public void schedule(@NonNull Runnable task, long delayMillis) {
+        scheduleCount++;
+        pendingTasks.remove(task);
+        pendingTasks.put(task, now + delayMillis);
+    }
+
+    @Override
+    public void cancel(@NonNull Runnable task) {
+        pendingTasks.remove(task);
+    }
+
+    int pendingCount() {
+        return pendingTasks.size();
+    }
+
+    /**
+     * Moves the time forward, running the tasks that become due in order.
+     */
+    void advance(long millis) {
+        final long target = now + millis;
+        while (true) {
+            Runnable next = null;
+            long nextRunAt = Long.MAX_VALUE;
+            for (Map.Entry<Runnable, Long> task : pendingTasks.entrySet()) {
+                if (task.getValue() <= target && task.getValue() < nextRunAt) {
+                    next = task.getKey();
+                    nextRunAt = task.getValue();
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            now = Math.max(now, nextRunAt);
+            pendingTasks.remove(next);
+            next.run();
+        }
+        now = target;
+    }
+}
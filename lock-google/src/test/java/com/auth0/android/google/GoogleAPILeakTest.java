@@ -0,0 +1,134 @@
+package com.auth0.android.google;
+
+import android.app.Activity;
+import android.app.Dialog;
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import com.auth0.android.authentication.AuthenticationAPIClient;
+import com.auth0.android.authentication.AuthenticationException;
+import com.auth0.android.provider.AuthCallback;
+import com.auth0.android.result.Credentials;
+import com.google.android.gms.common.ConnectionResult;
+import com.google.android.gms.common.api.GoogleApiClient;
+import com.google.android.gms.common.api.Scope;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class GoogleAPILeakTest {
+
+    private static final int CYCLES = 200;
+    private static final int ACTIVITY_SIZE_CHARS = 64 * 1024;
+
+    private static final AuthCallback NO_OP_CALLBACK = new AuthCallback() {
+        @Override
+        public void onFailure(@NonNull Dialog dialog) {
+        }
+
+        @Override
+        public void onFailure(AuthenticationException exception) {
+        }
+
+        @Override
+        public void onSuccess(@NonNull Credentials credentials) {
+        }
+    };
+
+    private Context applicationContext;
+    private GoogleApiClient client;
+    private GoogleAuthProvider provider;
+
+    @Before
+    public void setUp() throws Exception {
+        applicationContext = mock(Context.class, withSettings().stubOnly());
+        client = mock(GoogleApiClient.class, withSettings().stubOnly());
+        provider = new GoogleAuthProvider("serverClientId", mock(AuthenticationAPIClient.class)) {
+            @Override
+            GoogleAPI createGoogleAPI(Activity activity, boolean rememberLastLogin) {
+                return new GoogleAPI(activity, "serverClientId", getScopes(), createTokenListener()) {
+                    @Override
+                    GoogleApiClient createGoogleAPIClient(String serverClientId, Scope[] scopes) {
+                        return client;
+                    }
+
+                    @Override
+                    int isGooglePlayServicesAvailable() {
+                        return ConnectionResult.SUCCESS;
+                    }
+                };
+            }
+        };
+    }
+
+    @Test
+    public void shouldNotRetainTheActivityAfterAConfigurationChange() throws Exception {
+        final List<WeakReference<Activity>> activities = new ArrayList<>();
+        startAndRotate(activities, false);
+
+        awaitCollected(activities);
+        assertThat(countRetained(activities), is(0));
+    }
+
+    @Test
+    public void shouldNotRetainTheActivitiesAcrossLoginCycles() throws Exception {
+        final List<WeakReference<Activity>> activities = new ArrayList<>();
+        for (int i = 0; i < CYCLES; i++) {
+            startAndRotate(activities, i % 2 == 0);
+        }
+
+        awaitCollected(activities);
+        assertThat(countRetained(activities), is(0));
+    }
+
+    /**
+     * Starts a login with a new activity, recreates the activity as a configuration change would and starts the login again.
+     */
+    private void startAndRotate(List<WeakReference<Activity>> activities, boolean stop) {
+        final Activity activity = createActivity();
+        activities.add(new WeakReference<>(activity));
+        provider.start(activity, NO_OP_CALLBACK, 1, 2);
+
+        final Activity rotatedActivity = createActivity();
+        activities.add(new WeakReference<>(rotatedActivity));
+        provider.start(rotatedActivity, NO_OP_CALLBACK, 1, 2);
+        if (stop) {
+            provider.stop();
+        }
+    }
+
+    private Activity createActivity() {
+        final Activity activity = mock(Activity.class, withSettings().stubOnly());
+        when(activity.getApplicationContext()).thenReturn(applicationContext);
+        // Stands for the view hierarchy and resources an Activity holds.
+        when(activity.getPackageName()).thenReturn(new String(new char[ACTIVITY_SIZE_CHARS]));
+        return activity;
+    }
+
+    private static int countRetained(List<WeakReference<Activity>> activities) {
+        int retained = 0;
+        for (WeakReference<Activity> activity : activities) {
+            if (activity.get() != null) {
+                retained++;
+            }
+        }
+        return retained;
+    }
+
+    private static void awaitCollected(List<WeakReference<Activity>> activities) throws InterruptedException {
+        for (int i = 0; i < 20 && countRetained(activities) > 0; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.auth0.android.google;
+
+import android.app.Activity;
+import android.content.Context;
+
+import com.auth0.android.authentication.AuthenticationAPIClient;
+import com.auth0.android.authentication.AuthenticationException;
+import com.auth0.android.provider.AuthCallback;
+import com.google.android.gms.common.ConnectionResult;
+import com.google.android.gms.common.api.GoogleApiClient;
+import com.google.android.gms.common.api.Scope;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GoogleAPITest {
+
+    private Activity activity;
+    private GoogleApiClient client;
+    private AuthCallback callback;
+    private FakeScheduler scheduler;
+    private GoogleAuthProvider provider;
+    private int createdCount;
+
+    @Before
+    public void setUp() throws Exception {
+        activity = mock(Activity.class);
+        when(activity.getApplicationContext()).thenReturn(mock(Context.class));
+        client = mock(GoogleApiClient.class);
+        callback = mock(AuthCallback.class);
+        scheduler = new FakeScheduler();
+        provider = new GoogleAuthProvider("serverClientId", mock(AuthenticationAPIClient.class)) {
+            @Override
+            GoogleAPI createGoogleAPI(Activity activity, boolean rememberLastLogin) {
+                createdCount++;
+                return new GoogleAPI(activity, "serverClientId", getScopes(), createTokenListener()) {
+                    @Override
+                    GoogleApiClient createGoogleAPIClient(String serverClientId, Scope[] scopes) {
+                        return client;
+                    }
+
+                    @Override
+                    int isGooglePlayServicesAvailable() {
+                        return ConnectionResult.SUCCESS;
+                    }
+                };
+            }
+        };
+        provider.setScheduler(scheduler);
+    }
+
+    @Test
+    public void shouldReuseTheClientAfterThePhaseTimeoutsAreDisabled() throws Exception {
+        provider.setPhaseTimeouts(1000, 1000, 0);
+        provider.start(activity, callback, 1, 2);
+        assertThat(scheduler.pendingCount(), is(1));
+        // The sign in is canceled before the connection timeout, the client is kept for the next login.
+        provider.createTokenListener().onCancel();
+        provider.setPhaseTimeouts(0, 0, 0);
+
+        provider.start(activity, callback, 1, 2);
+
+        assertThat(createdCount, is(1));
+        assertThat(scheduler.pendingCount(), is(0));
+        scheduler.advance(1000);
+        verify(callback, times(1)).onFailure(any(AuthenticationException.class));
+    }
+}
@@ -1,13 +1,18 @@
 package com.auth0.android.google;
 
+import com.auth0.android.authentication.AuthenticationAPIClient;
 import com.auth0.android.provider.AuthProvider;
+import com.google.android.gms.common.Scopes;
+import com.google.android.gms.common.api.Scope;
 
 import org.hamcrest.CoreMatchers;
 import org.junit.Before;
 import org.junit.Test;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
@@ -38,4 +43,57 @@ public class GoogleAuthHandlerTest {
         assertThat(p, is(nullValue()));
     }
 
+    @Test
+    public void shouldGetDefaultProviderForUnregisteredConnection() throws Exception {
+        handler.addConnection("workspace", mock(GoogleAuthProvider.class));
+        final AuthProvider p = handler.providerFor("google-oauth2", "consumer");
+        assertThat(p, is(equalTo((AuthProvider) provider)));
+    }
+
+    @Test
+    public void shouldGetRegisteredProviderForConnection() throws Exception {
+        final GoogleAuthProvider workspaceProvider = mock(GoogleAuthProvider.class);
+        handler.addConnection("workspace", workspaceProvider);
+        final AuthProvider p = handler.providerFor("google-oauth2", "workspace");
+        assertThat(p, is(equalTo((AuthProvider) workspaceProvider)));
+    }
+
+    @Test
+    public void shouldNotGetRegisteredProviderForAnotherStrategy() throws Exception {
+        handler.addConnection("workspace", mock(GoogleAuthProvider.class));
+        final AuthProvider p = handler.providerFor("some-strategy", "workspace");
+        assertThat(p, is(nullValue()));
+    }
+
+    @Test
+    public void shouldCreateProviderForRegisteredConnectionOnce() throws Exception {
+        final Scope scope = new Scope(Scopes.EMAIL);
+        handler = new GoogleAuthHandler(mock(AuthenticationAPIClient.class))
+                .addConnection("workspace", "workspace-client-id", scope)
+                .addConnection("consumer", "consumer-client-id");
+
+        final GoogleAuthProvider workspace = (GoogleAuthProvider) handler.providerFor("google-oauth2", "workspace");
+        final GoogleAuthProvider consumer = (GoogleAuthProvider) handler.providerFor("google-oauth2", "consumer");
+
+        assertThat(workspace, is(notNullValue()));
+        assertThat(workspace.getConnection(), is("workspace"));
+        assertThat(workspace.getScopes(), is(new Scope[]{scope}));
+        assertThat(consumer.getConnection(), is("consumer"));
+        assertThat(consumer.getScopes().length, is(1));
+        assertThat(consumer, is(not(sameInstance(workspace))));
+        assertThat(handler.providerFor("google-oauth2", "workspace"), is(sameInstance((AuthProvider) workspace)));
+    }
+
+    @Test
+    public void shouldGetNullProviderForUnregisteredConnectionWithoutDefaultProvider() throws Exception {
+        handler = new GoogleAuthHandler(mock(AuthenticationAPIClient.class))
+                .addConnection("workspace", "workspace-client-id");
+        final AuthProvider p = handler.providerFor("google-oauth2", "consumer");
+        assertThat(p, is(nullValue()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotRegisterConnectionByServerClientIdWithoutApiClient() throws Exception {
+        handler.addConnection("workspace", "workspace-client-id");
+    }
 }
\ No newline at end of file
@@ -7,10 +7,12 @@ import android.support.annotation.NonNull;
 
 import com.auth0.android.authentication.AuthenticationAPIClient;
 import com.auth0.android.authentication.AuthenticationException;
+import com.auth0.android.callback.AuthenticationCallback;
 import com.auth0.android.callback.BaseCallback;
 import com.auth0.android.provider.AuthCallback;
 import com.auth0.android.request.AuthenticationRequest;
 import com.auth0.android.result.Credentials;
+import com.auth0.android.result.UserProfile;
 import com.google.android.gms.auth.api.signin.GoogleSignInAccount;
 import com.google.android.gms.common.ConnectionResult;
 import com.google.android.gms.common.Scopes;
@@ -23,6 +25,7 @@ import org.hamcrest.collection.IsArrayWithSize;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -36,6 +39,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -43,11 +47,17 @@ import static org.hamcrest.collection.IsArrayContainingInAnyOrder.arrayContainin
 import static org.hamcrest.collection.IsArrayWithSize.arrayWithSize;
 import static org.hamcrest.collection.IsMapContaining.hasEntry;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.internal.verification.VerificationModeFactory.times;
@@ -195,6 +205,19 @@ public class GoogleAuthProviderTest {
         assertThat(provider.willLogoutBeforeLogin(), is(true));
     }
 
+    @Test
+    public void shouldNotTrySilentSignInByDefault() throws Exception {
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        verify(google).silentSignIn(false);
+    }
+
+    @Test
+    public void shouldTrySilentSignInIfRequested() throws Exception {
+        provider.silentSignIn(true);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        verify(google).silentSignIn(true);
+    }
+
     @Test
     public void shouldSetRequireAndroidPermissions() throws Exception {
         String[] myPermissions = new String[]{"Permission.A", "Permission.B"};
@@ -226,6 +249,67 @@ public class GoogleAuthProviderTest {
         verify(callback).onFailure(any(AuthenticationException.class));
     }
 
+    @Test
+    public void shouldRequestOnlyTheMissingScopesWhenIncrementalAuthorizationIsEnabled() throws Exception {
+        final Scope granted = new Scope(Scopes.EMAIL);
+        final Scope missing = new Scope("some-scope");
+        provider.setScopes(granted, missing);
+        provider.incrementalAuthorization(true);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+
+        final GoogleSignInAccount account = createGoogleSignInAccountFromToken(TOKEN, Collections.singleton(granted));
+        when(account.getEmail()).thenReturn("john@gmail.com");
+        provider.googleCallback.onSuccess(account);
+
+        verify(google).requestMissingScopes("john@gmail.com", new Scope[]{missing});
+        verify(callback, never()).onFailure(any(AuthenticationException.class));
+        verify(client, never()).loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME);
+    }
+
+    @Test
+    public void shouldCallAuth0OAuthEndpointWhenTheMissingScopesAreGranted() throws Exception {
+        final Scope granted = new Scope(Scopes.EMAIL);
+        final Scope missing = new Scope("some-scope");
+        provider.setScopes(granted, missing);
+        provider.incrementalAuthorization(true);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        when(client.loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME)).thenReturn(authenticationRequest);
+
+        final GoogleSignInAccount account = createGoogleSignInAccountFromToken(TOKEN, Collections.singleton(granted));
+        when(account.getEmail()).thenReturn("john@gmail.com");
+        provider.googleCallback.onSuccess(account);
+        provider.googleCallback.onSuccess(createGoogleSignInAccountFromToken(TOKEN, Collections.singleton(missing)));
+
+        verify(client).loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME);
+    }
+
+    @Test
+    public void shouldRequestTheMissingScopesOnlyOnce() throws Exception {
+        provider.setScopes(new Scope("some-scope"));
+        provider.incrementalAuthorization(true);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+
+        final GoogleSignInAccount account = createGoogleSignInAccountFromToken(TOKEN, Collections.<Scope>emptySet());
+        when(account.getEmail()).thenReturn("john@gmail.com");
+        provider.googleCallback.onSuccess(account);
+        provider.googleCallback.onSuccess(account);
+
+        verify(google).requestMissingScopes(eq("john@gmail.com"), any(Scope[].class));
+        verify(callback).onFailure(any(AuthenticationException.class));
+    }
+
+    @Test
+    public void shouldFailWhenSomeScopesWereRejectedAndTheAccountEmailIsUnknown() throws Exception {
+        provider.setScopes(new Scope("some-scope"));
+        provider.incrementalAuthorization(true);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+
+        provider.googleCallback.onSuccess(createGoogleSignInAccountFromToken(TOKEN, Collections.<Scope>emptySet()));
+
+        verify(google, never()).requestMissingScopes(any(String.class), any(Scope[].class));
+        verify(callback).onFailure(any(AuthenticationException.class));
+    }
+
 
     @Test
     public void shouldCallAuth0OAuthEndpointWhenGoogleTokenIsReceived() throws Exception {
@@ -259,6 +343,52 @@ public class GoogleAuthProviderTest {
         assertThat((Map<String, Object>) mapCaptor.getValue(), is(hasEntry("key", (Object) "value")));
     }
 
+    @Test
+    public void shouldExchangeTheAccountWithCustomTokenExchanger() throws Exception {
+        final GoogleTokenExchanger exchanger = mock(GoogleTokenExchanger.class);
+        provider.setTokenExchanger(exchanger);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        final GoogleSignInAccount account = createGoogleSignInAccountFromToken(TOKEN, new HashSet<>(Arrays.asList(provider.getScopes())));
+        provider.googleCallback.onSuccess(account);
+
+        verify(exchanger).exchange(eq(account), eq(CONNECTION_NAME), anyMap(), any(AuthenticationCallback.class));
+        verify(client, never()).loginWithOAuthAccessToken(any(String.class), any(String.class));
+    }
+
+    @Test
+    public void shouldDeliverCredentialsFromCustomTokenExchanger() throws Exception {
+        provider.setTokenExchanger(new GoogleTokenExchanger() {
+            @Override
+            public void exchange(@NonNull GoogleSignInAccount account, @NonNull String connectionName, @NonNull Map<String, Object> parameters, @NonNull AuthenticationCallback<Credentials> callback) {
+                callback.onSuccess(credentials);
+            }
+        });
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onSuccess(createGoogleSignInAccountFromToken(TOKEN, new HashSet<>(Arrays.asList(provider.getScopes()))));
+
+        verify(callback).onSuccess(credentials);
+    }
+
+    @Test
+    public void shouldUseDefaultTokenExchangerWhenResetToNull() throws Exception {
+        provider.setTokenExchanger(mock(GoogleTokenExchanger.class));
+        provider.setTokenExchanger(null);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        when(client.loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME)).thenReturn(authenticationRequest);
+        provider.googleCallback.onSuccess(createGoogleSignInAccountFromToken(TOKEN, new HashSet<>(Arrays.asList(provider.getScopes()))));
+
+        verify(client).loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME);
+    }
+
+    @Test
+    public void shouldCheckServerAuthCodeRequestBeforeReusingGoogleClient() throws Exception {
+        provider.prepare(activity);
+        provider.requestServerAuthCode(true);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+
+        verify(google).canBeReusedFor(activity, SERVER_CLIENT_ID, provider.getScopes(), true);
+    }
+
     @Test
     public void shouldFailWithDialogWhenErrorOccurred() throws Exception {
         provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
@@ -298,6 +428,499 @@ public class GoogleAuthProviderTest {
         verify(callback).onSuccess(eq(credentials));
     }
 
+    @Test
+    public void shouldRetryTheExchangeAfterTransientError() throws Exception {
+        final FakeScheduler scheduler = new FakeScheduler();
+        final RetryPolicy.Listener retryListener = mock(RetryPolicy.Listener.class);
+        final RetryPolicy retryPolicy = new RetryPolicy(3, 1000, 1000, 10000);
+        retryPolicy.setListener(retryListener);
+        provider.setScheduler(scheduler);
+        provider.setRetryPolicy(retryPolicy);
+        shouldFailRequest(authenticationRequest, new AuthenticationException("error", 503));
+        when(client.loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME)).thenReturn(authenticationRequest);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onSuccess(createGoogleSignInAccountFromToken(TOKEN, new HashSet<>(Arrays.asList(provider.getScopes()))));
+
+        verify(client, times(1)).loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME);
+        verify(callback, never()).onFailure(any(AuthenticationException.class));
+
+        shouldYieldCredentialsForRequest(authenticationRequest, credentials);
+        scheduler.advance(1000);
+
+        verify(client, times(2)).loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME);
+        verify(callback).onSuccess(credentials);
+        verify(retryListener).onRetry(eq(1), anyLong(), any(AuthenticationException.class));
+        verify(retryListener).onExchangeFinished(2, true);
+    }
+
+    @Test
+    public void shouldNotRetryTheExchangeAfterFatalError() throws Exception {
+        final FakeScheduler scheduler = new FakeScheduler();
+        provider.setScheduler(scheduler);
+        provider.setRetryPolicy(new RetryPolicy(3, 1000, 1000, 10000));
+        shouldFailRequest(authenticationRequest, new AuthenticationException("error", 401));
+        when(client.loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME)).thenReturn(authenticationRequest);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onSuccess(createGoogleSignInAccountFromToken(TOKEN, new HashSet<>(Arrays.asList(provider.getScopes()))));
+
+        verify(callback).onFailure(any(AuthenticationException.class));
+        assertThat(scheduler.pendingCount(), is(0));
+    }
+
+    @Test
+    public void shouldFailWhenTheExchangeRetriesRunOut() throws Exception {
+        final FakeScheduler scheduler = new FakeScheduler();
+        provider.setScheduler(scheduler);
+        provider.setRetryPolicy(new RetryPolicy(2, 1000, 1000, 10000));
+        shouldFailRequest(authenticationRequest, new AuthenticationException("error", 503));
+        when(client.loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME)).thenReturn(authenticationRequest);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onSuccess(createGoogleSignInAccountFromToken(TOKEN, new HashSet<>(Arrays.asList(provider.getScopes()))));
+        scheduler.advance(1000);
+
+        verify(client, times(2)).loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME);
+        verify(callback).onFailure(any(AuthenticationException.class));
+    }
+
+    @Test
+    public void shouldCancelTheExchangeRetryOnClearSession() throws Exception {
+        final FakeScheduler scheduler = new FakeScheduler();
+        provider.setScheduler(scheduler);
+        provider.setRetryPolicy(new RetryPolicy(3, 1000, 1000, 10000));
+        shouldFailRequest(authenticationRequest, new AuthenticationException("error", 503));
+        when(client.loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME)).thenReturn(authenticationRequest);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onSuccess(createGoogleSignInAccountFromToken(TOKEN, new HashSet<>(Arrays.asList(provider.getScopes()))));
+        provider.clearSession();
+        scheduler.advance(1000);
+
+        verify(client, times(1)).loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME);
+    }
+
+    @Test
+    public void shouldFailWithTimeoutWhenTheLoginDoesNotFinishInTime() throws Exception {
+        final FakeScheduler scheduler = new FakeScheduler();
+        final GoogleAuthMetrics metrics = mock(GoogleAuthMetrics.class);
+        provider.setScheduler(scheduler);
+        provider.setMetrics(metrics);
+        provider.setLoginTimeout(1000);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+
+        scheduler.advance(999);
+        verify(callback, never()).onFailure(any(AuthenticationException.class));
+
+        scheduler.advance(1);
+        final ArgumentCaptor<AuthenticationException> captor = ArgumentCaptor.forClass(AuthenticationException.class);
+        verify(callback).onFailure(captor.capture());
+        assertThat(captor.getValue().getCode(), is(GoogleAuthProvider.ERROR_CODE_TIMEOUT));
+        verify(google).disconnect();
+        verify(metrics).onPhaseCompleted(eq(GoogleAuthMetrics.Phase.LOGIN), eq(GoogleAuthMetrics.Outcome.TIMEOUT), anyLong(), anyLong());
+        assertThat(provider.authorize(AUTH_REQ_CODE, Activity.RESULT_OK, new Intent()), is(false));
+    }
+
+    @Test
+    public void shouldCancelTheLoginTimeoutWhenTheLoginFinishes() throws Exception {
+        final FakeScheduler scheduler = new FakeScheduler();
+        provider.setScheduler(scheduler);
+        provider.setLoginTimeout(1000);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onCancel();
+
+        scheduler.advance(1000);
+        verify(callback, times(1)).onFailure(any(AuthenticationException.class));
+        verify(google, never()).disconnect();
+        assertThat(scheduler.pendingCount(), is(0));
+    }
+
+    @Test
+    public void shouldPassThePhaseTimeoutsToGoogleAPI() throws Exception {
+        final FakeScheduler scheduler = new FakeScheduler();
+        provider.setScheduler(scheduler);
+        provider.setPhaseTimeouts(1000, 2000, 3000);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+
+        verify(google).setTimeouts(scheduler, 1000, 2000);
+    }
+
+    @Test
+    public void shouldFailWithTimeoutWhenAGooglePhaseTimesOut() throws Exception {
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onTimeout(GoogleAuthMetrics.Phase.CONNECTION);
+
+        final ArgumentCaptor<AuthenticationException> captor = ArgumentCaptor.forClass(AuthenticationException.class);
+        verify(callback).onFailure(captor.capture());
+        assertThat(captor.getValue().getCode(), is(GoogleAuthProvider.ERROR_CODE_TIMEOUT));
+        verify(google).disconnect();
+    }
+
+    @Test
+    public void shouldIgnoreAPhaseTimeoutReceivedAfterTheLoginEnded() throws Exception {
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onCancel();
+        provider.googleCallback.onTimeout(GoogleAuthMetrics.Phase.SCOPE_REQUEST);
+
+        verify(callback, times(1)).onFailure(any(AuthenticationException.class));
+        verify(google, never()).disconnect();
+    }
+
+    @Test
+    public void shouldNotDeliverResultsReceivedWhenNoLoginIsInProgress() throws Exception {
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.clearSession();
+        provider.googleCallback.onCancel();
+
+        verify(callback, never()).onFailure(any(AuthenticationException.class));
+    }
+
+    @Test
+    public void shouldFailWithTimeoutAndIgnoreTheLateExchangeResult() throws Exception {
+        final FakeScheduler scheduler = new FakeScheduler();
+        final GoogleAuthMetrics metrics = mock(GoogleAuthMetrics.class);
+        provider.setScheduler(scheduler);
+        provider.setMetrics(metrics);
+        provider.setPhaseTimeouts(0, 0, 1000);
+        final GoogleTokenExchanger exchanger = mock(GoogleTokenExchanger.class);
+        provider.setTokenExchanger(exchanger);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onSuccess(createGoogleSignInAccountFromToken(TOKEN, new HashSet<>(Arrays.asList(provider.getScopes()))));
+        final ArgumentCaptor<AuthenticationCallback> exchangeCallback = ArgumentCaptor.forClass(AuthenticationCallback.class);
+        verify(exchanger).exchange(any(GoogleSignInAccount.class), eq(CONNECTION_NAME), anyMap(), exchangeCallback.capture());
+
+        scheduler.advance(1000);
+        //noinspection unchecked
+        exchangeCallback.getValue().onSuccess(credentials);
+
+        verify(callback).onFailure(any(AuthenticationException.class));
+        verify(callback, never()).onSuccess(any(Credentials.class));
+        verify(metrics).onPhaseCompleted(eq(GoogleAuthMetrics.Phase.TOKEN_EXCHANGE), eq(GoogleAuthMetrics.Outcome.TIMEOUT), anyLong(), anyLong());
+    }
+
+    @Test
+    public void shouldCompleteTheFutureWithTheCredentials() throws Exception {
+        final GoogleTokenExchanger exchanger = mock(GoogleTokenExchanger.class);
+        provider.setTokenExchanger(exchanger);
+        final AuthFuture<Credentials> future = provider.startAsync(activity, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onSuccess(createGoogleSignInAccountFromToken(TOKEN, new HashSet<>(Arrays.asList(provider.getScopes()))));
+        final ArgumentCaptor<AuthenticationCallback> exchangeCallback = ArgumentCaptor.forClass(AuthenticationCallback.class);
+        verify(exchanger).exchange(any(GoogleSignInAccount.class), eq(CONNECTION_NAME), anyMap(), exchangeCallback.capture());
+        assertThat(future.isDone(), is(false));
+
+        //noinspection unchecked
+        exchangeCallback.getValue().onSuccess(credentials);
+
+        assertThat(future.get(), is(credentials));
+    }
+
+    @Test
+    public void shouldFailTheFutureWithTheErrorDialog() throws Exception {
+        when(google.isGooglePlayServicesAvailable()).thenReturn(ConnectionResult.SERVICE_MISSING);
+        Dialog dialog = mock(Dialog.class);
+        when(google.getErrorDialog(ConnectionResult.SERVICE_MISSING, GoogleAuthProvider.REQUEST_RESOLVE_ERROR)).thenReturn(dialog);
+
+        final AuthFuture<Credentials> future = provider.startAsync(activity, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+
+        try {
+            future.get();
+            fail("Expected an ExecutionException");
+        } catch (ExecutionException e) {
+            final ErrorDialogException error = (ErrorDialogException) e.getCause();
+            assertThat(error.getCode(), is(GoogleAuthProvider.ERROR_CODE_PLAY_SERVICES));
+            assertThat(error.getDialog(), is(dialog));
+        }
+    }
+
+    @Test
+    public void shouldFailTheFutureWithTheConnectionErrorDialog() throws Exception {
+        Dialog dialog = mock(Dialog.class);
+
+        final AuthFuture<Credentials> future = provider.startAsync(activity, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onError(dialog);
+
+        try {
+            future.get();
+            fail("Expected an ExecutionException");
+        } catch (ExecutionException e) {
+            final ErrorDialogException error = (ErrorDialogException) e.getCause();
+            assertThat(error.getCode(), is(GoogleAuthProvider.ERROR_CODE_CONNECTION));
+            assertThat(error.getDialog(), is(dialog));
+        }
+    }
+
+    @Test
+    public void shouldAbandonTheLoginWhenTheFutureIsCanceled() throws Exception {
+        final FakeScheduler scheduler = new FakeScheduler();
+        provider.setScheduler(scheduler);
+        provider.setLoginTimeout(1000);
+        final AuthFuture<Credentials> future = provider.startAsync(activity, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+
+        future.cancel(false);
+        scheduler.advance(0);
+
+        verify(google).disconnect();
+        assertThat(scheduler.pendingCount(), is(0));
+        assertThat(provider.authorize(AUTH_REQ_CODE, Activity.RESULT_OK, new Intent()), is(false));
+    }
+
+    @Test
+    public void shouldKeepTheLoginWhenAnotherCallerIsWaitingForIt() throws Exception {
+        final FakeScheduler scheduler = new FakeScheduler();
+        provider.setScheduler(scheduler);
+        when(google.canBeReusedFor(eq(activity), eq(SERVER_CLIENT_ID), any(Scope[].class), anyBoolean())).thenReturn(true);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        final AuthFuture<Credentials> future = provider.startAsync(activity, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+
+        future.cancel(false);
+        scheduler.advance(0);
+        provider.googleCallback.onCancel();
+
+        verify(google, never()).disconnect();
+        verify(callback).onFailure(any(AuthenticationException.class));
+    }
+
+    @Test
+    public void shouldDeliverTheUserProfileBeforeTheCredentials() throws Exception {
+        final UserProfileFetcher fetcher = mock(UserProfileFetcher.class);
+        final UserProfileFetcher.Listener listener = mock(UserProfileFetcher.Listener.class);
+        final UserProfile profile = mock(UserProfile.class);
+        when(fetcher.getListener()).thenReturn(listener);
+        provider.setUserProfileFetcher(fetcher);
+        shouldYieldCredentialsForRequest(authenticationRequest, credentials);
+        when(client.loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME)).thenReturn(authenticationRequest);
+
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onSuccess(createGoogleSignInAccountFromToken(TOKEN, new HashSet<>(Arrays.asList(provider.getScopes()))));
+        final ArgumentCaptor<AuthenticationCallback> profileCallback = ArgumentCaptor.forClass(AuthenticationCallback.class);
+        verify(fetcher).fetch(any(GoogleSignInAccount.class), eq(CONNECTION_NAME), eq(credentials), profileCallback.capture());
+        verify(callback, never()).onSuccess(any(Credentials.class));
+
+        //noinspection unchecked
+        profileCallback.getValue().onSuccess(profile);
+        final InOrder inOrder = inOrder(listener, callback);
+        inOrder.verify(listener).onUserProfile(credentials, profile);
+        inOrder.verify(callback).onSuccess(credentials);
+    }
+
+    @Test
+    public void shouldDeliverTheCachedUserProfileWithoutFetchingIt() throws Exception {
+        final UserProfileFetcher fetcher = mock(UserProfileFetcher.class);
+        final UserProfileFetcher.Listener listener = mock(UserProfileFetcher.Listener.class);
+        final UserProfile profile = mock(UserProfile.class);
+        when(fetcher.getListener()).thenReturn(listener);
+        when(fetcher.getCached(any(GoogleSignInAccount.class), eq(CONNECTION_NAME))).thenReturn(profile);
+        provider.setUserProfileFetcher(fetcher);
+        shouldYieldCredentialsForRequest(authenticationRequest, credentials);
+        when(client.loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME)).thenReturn(authenticationRequest);
+
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onSuccess(createGoogleSignInAccountFromToken(TOKEN, new HashSet<>(Arrays.asList(provider.getScopes()))));
+
+        verify(fetcher, never()).fetch(any(GoogleSignInAccount.class), anyString(), any(Credentials.class), any(AuthenticationCallback.class));
+        verify(listener).onUserProfile(credentials, profile);
+        verify(callback).onSuccess(credentials);
+    }
+
+    @Test
+    public void shouldDeliverTheCredentialsWhenTheUserProfileFails() throws Exception {
+        final UserProfileFetcher fetcher = mock(UserProfileFetcher.class);
+        final UserProfileFetcher.Listener listener = mock(UserProfileFetcher.Listener.class);
+        when(fetcher.getListener()).thenReturn(listener);
+        provider.setUserProfileFetcher(fetcher);
+        shouldYieldCredentialsForRequest(authenticationRequest, credentials);
+        when(client.loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME)).thenReturn(authenticationRequest);
+
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onSuccess(createGoogleSignInAccountFromToken(TOKEN, new HashSet<>(Arrays.asList(provider.getScopes()))));
+        final ArgumentCaptor<AuthenticationCallback> profileCallback = ArgumentCaptor.forClass(AuthenticationCallback.class);
+        verify(fetcher).fetch(any(GoogleSignInAccount.class), eq(CONNECTION_NAME), eq(credentials), profileCallback.capture());
+        final AuthenticationException error = new AuthenticationException("error");
+
+        //noinspection unchecked
+        profileCallback.getValue().onFailure(error);
+        verify(listener).onUserProfileFailed(credentials, error);
+        verify(callback).onSuccess(credentials);
+    }
+
+    @Test
+    public void shouldReturnCachedCredentialsForTheSameAccount() throws Exception {
+        final CredentialsCache cache = new CredentialsCache(10, 60 * 60 * 1000);
+        provider.setCredentialsCache(cache);
+        final Credentials credentials = new Credentials("idToken", "accessToken", "bearer", "refreshToken", 86400L);
+        shouldYieldCredentialsForRequest(authenticationRequest, credentials);
+        when(client.loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME)).thenReturn(authenticationRequest);
+        final GoogleSignInAccount account = createGoogleSignInAccountFromToken(TOKEN, new HashSet<>(Arrays.asList(provider.getScopes())));
+        when(account.getId()).thenReturn("account-id");
+
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onSuccess(account);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onSuccess(account);
+
+        verify(client, times(1)).loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME);
+        final ArgumentCaptor<Credentials> captor = ArgumentCaptor.forClass(Credentials.class);
+        verify(callback, times(2)).onSuccess(captor.capture());
+        assertThat(captor.getAllValues().get(0), is(credentials));
+        assertThat(captor.getAllValues().get(1).getAccessToken(), is("accessToken"));
+        assertThat(cache.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void shouldTrackExchangedCredentialsWithTheRefresher() throws Exception {
+        final CredentialsRefresher refresher = mock(CredentialsRefresher.class);
+        final CredentialsCache cache = new CredentialsCache(10, 60 * 60 * 1000);
+        provider.setCredentialsCache(cache);
+        provider.setCredentialsRefresher(refresher);
+        final Credentials credentials = new Credentials("idToken", "accessToken", "bearer", "refreshToken", 86400L);
+        shouldYieldCredentialsForRequest(authenticationRequest, credentials);
+        when(client.loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME)).thenReturn(authenticationRequest);
+        final GoogleSignInAccount account = createGoogleSignInAccountFromToken(TOKEN, new HashSet<>(Arrays.asList(provider.getScopes())));
+        when(account.getId()).thenReturn("account-id");
+
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onSuccess(account);
+
+        final String key = CredentialsCache.keyFor("account-id", CONNECTION_NAME, provider.getScopes(), Collections.<String, Object>emptyMap());
+        verify(refresher).track(key, credentials, cache);
+    }
+
+    @Test
+    public void shouldRefreshTheOverdueCredentialsWhenTheLoginStarts() throws Exception {
+        final CredentialsRefresher refresher = mock(CredentialsRefresher.class);
+        provider.setCredentialsRefresher(refresher);
+
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+
+        verify(refresher).refreshIfDue();
+    }
+
+    @Test
+    public void shouldNotReturnCachedCredentialsForDifferentParameters() throws Exception {
+        provider.setCredentialsCache(new CredentialsCache(10, 60 * 60 * 1000));
+        shouldYieldCredentialsForRequest(authenticationRequest, credentials);
+        when(client.loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME)).thenReturn(authenticationRequest);
+        final GoogleSignInAccount account = createGoogleSignInAccountFromToken(TOKEN, new HashSet<>(Arrays.asList(provider.getScopes())));
+        when(account.getId()).thenReturn("account-id");
+
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onSuccess(account);
+        provider.setParameters(Collections.<String, Object>singletonMap("key", "value"));
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onSuccess(account);
+
+        verify(client, times(2)).loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME);
+    }
+
+    @Test
+    public void shouldNotVerifyIdTokenByDefault() throws Exception {
+        when(client.loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME)).thenReturn(authenticationRequest);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onSuccess(createGoogleSignInAccountFromToken(TOKEN, new HashSet<>(Arrays.asList(provider.getScopes()))));
+
+        verify(client).loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME);
+        verify(google, never()).forceSignIn();
+    }
+
+    @Test
+    public void shouldExchangeValidIdToken() throws Exception {
+        final String token = IdTokenVerifierTest.createToken("{\"aud\":\"" + SERVER_CLIENT_ID + "\",\"exp\":" + (System.currentTimeMillis() / 1000 + 3600) + "}");
+        when(client.loginWithOAuthAccessToken(token, CONNECTION_NAME)).thenReturn(authenticationRequest);
+        provider.verifyIdToken(true);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onSuccess(createGoogleSignInAccountFromToken(token, new HashSet<>(Arrays.asList(provider.getScopes()))));
+
+        verify(client).loginWithOAuthAccessToken(token, CONNECTION_NAME);
+        verify(google, never()).forceSignIn();
+    }
+
+    @Test
+    public void shouldForceSignInOnceWhenIdTokenIsExpired() throws Exception {
+        final String token = IdTokenVerifierTest.createToken("{\"aud\":\"" + SERVER_CLIENT_ID + "\",\"exp\":1}");
+        when(google.forceSignIn()).thenReturn(true);
+        provider.verifyIdToken(true);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        final GoogleSignInAccount account = createGoogleSignInAccountFromToken(token, new HashSet<>(Arrays.asList(provider.getScopes())));
+        provider.googleCallback.onSuccess(account);
+
+        verify(google).forceSignIn();
+        verify(client, never()).loginWithOAuthAccessToken(token, CONNECTION_NAME);
+        verify(callback, never()).onFailure(any(AuthenticationException.class));
+
+        provider.googleCallback.onSuccess(account);
+        verify(google, times(1)).forceSignIn();
+        verify(callback).onFailure(any(AuthenticationException.class));
+    }
+
+    @Test
+    public void shouldFailWhenTheNewSignInCannotBeRequested() throws Exception {
+        final String token = IdTokenVerifierTest.createToken("{\"aud\":\"" + SERVER_CLIENT_ID + "\",\"exp\":1}");
+        when(google.forceSignIn()).thenReturn(false);
+        provider.verifyIdToken(true);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onSuccess(createGoogleSignInAccountFromToken(token, new HashSet<>(Arrays.asList(provider.getScopes()))));
+
+        verify(google).forceSignIn();
+        verify(callback).onFailure(any(AuthenticationException.class));
+        verify(client, never()).loginWithOAuthAccessToken(token, CONNECTION_NAME);
+    }
+
+    @Test
+    public void shouldForceSignInWhenIdTokenHasAnotherAudience() throws Exception {
+        final String token = IdTokenVerifierTest.createToken("{\"aud\":\"another\",\"exp\":" + (System.currentTimeMillis() / 1000 + 3600) + "}");
+        when(google.forceSignIn()).thenReturn(true);
+        provider.verifyIdToken(true);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onSuccess(createGoogleSignInAccountFromToken(token, new HashSet<>(Arrays.asList(provider.getScopes()))));
+
+        verify(google).forceSignIn();
+        verify(client, never()).loginWithOAuthAccessToken(token, CONNECTION_NAME);
+        verify(callback, never()).onFailure(any(AuthenticationException.class));
+    }
+
+    @Test
+    public void shouldPassMetricsToGoogleAPI() throws Exception {
+        final GoogleAuthMetrics metrics = mock(GoogleAuthMetrics.class);
+        provider.setMetrics(metrics);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+
+        verify(google).setMetrics(metrics);
+    }
+
+    @Test
+    public void shouldReportAvailabilityCheckPhase() throws Exception {
+        final GoogleAuthMetrics metrics = mock(GoogleAuthMetrics.class);
+        provider.setMetrics(metrics);
+        when(google.isGooglePlayServicesAvailable()).thenReturn(ConnectionResult.SERVICE_MISSING);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+
+        verify(metrics).onPhaseCompleted(eq(GoogleAuthMetrics.Phase.AVAILABILITY_CHECK), eq(GoogleAuthMetrics.Outcome.FAILURE), anyLong(), anyLong());
+    }
+
+    @Test
+    public void shouldReportScopeCheckAndTokenExchangePhases() throws Exception {
+        final GoogleAuthMetrics metrics = mock(GoogleAuthMetrics.class);
+        provider.setMetrics(metrics);
+        shouldYieldCredentialsForRequest(authenticationRequest, credentials);
+        when(client.loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME)).thenReturn(authenticationRequest);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onSuccess(createGoogleSignInAccountFromToken(TOKEN, new HashSet<>(Arrays.asList(provider.getScopes()))));
+
+        ArgumentCaptor<Long> start = ArgumentCaptor.forClass(Long.class);
+        ArgumentCaptor<Long> end = ArgumentCaptor.forClass(Long.class);
+        verify(metrics).onPhaseCompleted(eq(GoogleAuthMetrics.Phase.SCOPE_CHECK), eq(GoogleAuthMetrics.Outcome.SUCCESS), anyLong(), anyLong());
+        verify(metrics).onPhaseCompleted(eq(GoogleAuthMetrics.Phase.TOKEN_EXCHANGE), eq(GoogleAuthMetrics.Outcome.SUCCESS), start.capture(), end.capture());
+        assertThat(end.getValue() >= start.getValue(), is(true));
+    }
+
+    @Test
+    public void shouldReportFailedScopeCheckPhase() throws Exception {
+        final GoogleAuthMetrics metrics = mock(GoogleAuthMetrics.class);
+        provider.setMetrics(metrics);
+        provider.setScopes(new Scope("some-scope"));
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onSuccess(createGoogleSignInAccountFromToken(TOKEN, Collections.<Scope>emptySet()));
+
+        verify(metrics).onPhaseCompleted(eq(GoogleAuthMetrics.Phase.SCOPE_CHECK), eq(GoogleAuthMetrics.Outcome.FAILURE), anyLong(), anyLong());
+    }
+
     @Test
     public void shouldDisconnectGoogleClientBeforeReUsing() throws Exception {
         provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
@@ -305,6 +928,122 @@ public class GoogleAuthProviderTest {
         verify(google, times(1)).disconnect();
     }
 
+    @Test
+    public void shouldJoinLoginInProgress() throws Exception {
+        when(google.isGooglePlayServicesAvailable()).thenReturn(ConnectionResult.SUCCESS);
+        when(google.canBeReusedFor(eq(activity), eq(SERVER_CLIENT_ID), any(Scope[].class), anyBoolean())).thenReturn(true);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+
+        verify(google, never()).disconnect();
+        verify(google, times(1)).connectAndRequestGoogleAccount(AUTH_REQ_CODE, GoogleAuthProvider.REQUEST_RESOLVE_ERROR);
+    }
+
+    @Test
+    public void shouldDeliverJoinedLoginResultToEveryCallback() throws Exception {
+        final AuthCallback secondCallback = mock(AuthCallback.class);
+        shouldYieldCredentialsForRequest(authenticationRequest, credentials);
+        when(client.loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME)).thenReturn(authenticationRequest);
+        when(google.canBeReusedFor(eq(activity), eq(SERVER_CLIENT_ID), any(Scope[].class), anyBoolean())).thenReturn(true);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.start(activity, secondCallback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onSuccess(createGoogleSignInAccountFromToken(TOKEN, new HashSet<>(Arrays.asList(provider.getScopes()))));
+
+        verify(client, times(1)).loginWithOAuthAccessToken(TOKEN, CONNECTION_NAME);
+        verify(callback).onSuccess(eq(credentials));
+        verify(secondCallback).onSuccess(eq(credentials));
+    }
+
+    @Test
+    public void shouldDeliverResultOnceToTheSameCallback() throws Exception {
+        when(google.canBeReusedFor(eq(activity), eq(SERVER_CLIENT_ID), any(Scope[].class), anyBoolean())).thenReturn(true);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onCancel();
+
+        verify(callback, times(1)).onFailure(any(AuthenticationException.class));
+    }
+
+    @Test
+    public void shouldRestartLoginInProgressForAnotherActivity() throws Exception {
+        when(google.canBeReusedFor(eq(activity), eq(SERVER_CLIENT_ID), any(Scope[].class), anyBoolean())).thenReturn(true);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.start(mock(Activity.class), callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+
+        verify(google).disconnect();
+        verify(google, times(2)).connectAndRequestGoogleAccount(AUTH_REQ_CODE, GoogleAuthProvider.REQUEST_RESOLVE_ERROR);
+    }
+
+    @Test
+    public void shouldStartNewLoginAfterThePreviousFinished() throws Exception {
+        when(google.canBeReusedFor(eq(activity), eq(SERVER_CLIENT_ID), any(Scope[].class), anyBoolean())).thenReturn(true);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+        provider.googleCallback.onCancel();
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+
+        verify(google, times(2)).connectAndRequestGoogleAccount(AUTH_REQ_CODE, GoogleAuthProvider.REQUEST_RESOLVE_ERROR);
+    }
+
+    @Test
+    public void shouldConnectGoogleClientWhenPrepared() throws Exception {
+        when(google.isGooglePlayServicesAvailable()).thenReturn(ConnectionResult.SUCCESS);
+        provider.prepare(activity);
+        verify(google).connect();
+    }
+
+    @Test
+    public void shouldNotConnectGoogleClientWhenPreparedIfGooglePlayServicesIsNotAvailable() throws Exception {
+        when(google.isGooglePlayServicesAvailable()).thenReturn(ConnectionResult.SERVICE_MISSING);
+        provider.prepare(activity);
+        verify(google, never()).connect();
+    }
+
+    @Test
+    public void shouldSignOutAheadOfTime() throws Exception {
+        when(google.isGooglePlayServicesAvailable()).thenReturn(ConnectionResult.SUCCESS);
+        provider.signOut(activity);
+        verify(google).signOut();
+        verify(google, never()).logoutAndClearState();
+    }
+
+    @Test
+    public void shouldNotSignOutIfGooglePlayServicesIsNotAvailable() throws Exception {
+        when(google.isGooglePlayServicesAvailable()).thenReturn(ConnectionResult.SERVICE_MISSING);
+        provider.signOut(activity);
+        verify(google, never()).signOut();
+    }
+
+    @Test
+    public void shouldReuseSignedOutGoogleClient() throws Exception {
+        when(google.canBeReusedFor(eq(activity), eq(SERVER_CLIENT_ID), any(Scope[].class), anyBoolean())).thenReturn(true);
+        provider.signOut(activity);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+
+        verify(google, never()).disconnect();
+        verify(google).connectAndRequestGoogleAccount(AUTH_REQ_CODE, GoogleAuthProvider.REQUEST_RESOLVE_ERROR);
+    }
+
+    @Test
+    public void shouldReusePreparedGoogleClient() throws Exception {
+        when(google.isGooglePlayServicesAvailable()).thenReturn(ConnectionResult.SUCCESS);
+        when(google.canBeReusedFor(eq(activity), eq(SERVER_CLIENT_ID), any(Scope[].class), anyBoolean())).thenReturn(true);
+        provider.prepare(activity);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+
+        verify(google, never()).disconnect();
+        verify(google).connectAndRequestGoogleAccount(AUTH_REQ_CODE, GoogleAuthProvider.REQUEST_RESOLVE_ERROR);
+    }
+
+    @Test
+    public void shouldNotReusePreparedGoogleClientIfConfigurationChanged() throws Exception {
+        when(google.isGooglePlayServicesAvailable()).thenReturn(ConnectionResult.SUCCESS);
+        when(google.canBeReusedFor(eq(activity), eq(SERVER_CLIENT_ID), any(Scope[].class), anyBoolean())).thenReturn(false);
+        provider.prepare(activity);
+        provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
+
+        verify(google).disconnect();
+    }
+
     @Test
     public void shouldLogoutOnClearSession() throws Exception {
         provider.start(activity, callback, PERMISSION_REQ_CODE, AUTH_REQ_CODE);
@@ -339,12 +1078,16 @@ public class GoogleAuthProviderTest {
     }
 
     private void shouldFailRequest(AuthenticationRequest request) {
+        shouldFailRequest(request, new AuthenticationException("error"));
+    }
+
+    private void shouldFailRequest(AuthenticationRequest request, final AuthenticationException error) {
         doAnswer(new Answer() {
             @Override
             public Object answer(InvocationOnMock invocation) throws Throwable {
                 //noinspection unchecked
                 BaseCallback<Credentials, AuthenticationException> callback = (BaseCallback<Credentials, AuthenticationException>) invocation.getArguments()[0];
-                callback.onFailure(new AuthenticationException("error"));
+                callback.onFailure(error);
                 return null;
             }
         }).when(request).start(Matchers.<BaseCallback<Credentials, AuthenticationException>>any());
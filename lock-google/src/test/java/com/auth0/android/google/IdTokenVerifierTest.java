@@ -0,0 +1,115 @@
+package com.auth0.android.google;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.BaseEncoding;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class IdTokenVerifierTest {
+
+    private static final String AUDIENCE = "server_client_id.apps.googleusercontent.com";
+    private static final long NOW_SECONDS = 1500000000L;
+
+    private IdTokenVerifier verifier;
+
+    @Before
+    public void setUp() throws Exception {
+        verifier = new IdTokenVerifier(AUDIENCE, new Clock() {
+            @Override
+            public long nanoTime() {
+                return 0;
+            }
+
+            @Override
+            public long currentTimeMillis() {
+                return TimeUnit.SECONDS.toMillis(NOW_SECONDS);
+            }
+        });
+    }
+
+    @Test
+    public void shouldAcceptValidToken() throws Exception {
+        String token = createToken("{\"iss\":\"accounts.google.com\",\"aud\":\"" + AUDIENCE + "\",\"exp\":" + (NOW_SECONDS + 3600) + "}");
+        assertThat(verifier.verify(token), is(IdTokenVerifier.Result.VALID));
+    }
+
+    @Test
+    public void shouldAcceptValidTokenWithAudienceArray() throws Exception {
+        String token = createToken("{\"aud\":[\"other\",\"" + AUDIENCE + "\"],\"exp\":" + (NOW_SECONDS + 3600) + "}");
+        assertThat(verifier.verify(token), is(IdTokenVerifier.Result.VALID));
+    }
+
+    @Test
+    public void shouldSkipNestedAndEscapedClaims() throws Exception {
+        String token = createToken("{ \"name\" : \"John \\\"exp\\\" Doe\", \"extra\": {\"exp\": 1, \"list\": [1, {\"aud\": \"x\"}]}, \"email_verified\": true,"
+                + " \"aud\" : \"" + AUDIENCE + "\", \"exp\" : " + (NOW_SECONDS + 3600) + " }");
+        assertThat(verifier.verify(token), is(IdTokenVerifier.Result.VALID));
+    }
+
+    @Test
+    public void shouldRejectExpiredToken() throws Exception {
+        String token = createToken("{\"aud\":\"" + AUDIENCE + "\",\"exp\":" + (NOW_SECONDS - 1) + "}");
+        assertThat(verifier.verify(token), is(IdTokenVerifier.Result.EXPIRED));
+    }
+
+    @Test
+    public void shouldRejectTokenExpiringWithinLeeway() throws Exception {
+        String token = createToken("{\"aud\":\"" + AUDIENCE + "\",\"exp\":" + (NOW_SECONDS + IdTokenVerifier.EXPIRATION_LEEWAY_SECONDS) + "}");
+        assertThat(verifier.verify(token), is(IdTokenVerifier.Result.EXPIRED));
+    }
+
+    @Test
+    public void shouldRejectTokenForAnotherAudience() throws Exception {
+        String token = createToken("{\"aud\":\"another_client_id\",\"exp\":" + (NOW_SECONDS + 3600) + "}");
+        assertThat(verifier.verify(token), is(IdTokenVerifier.Result.INVALID_AUDIENCE));
+    }
+
+    @Test
+    public void shouldRejectTokenWithoutAudience() throws Exception {
+        String token = createToken("{\"exp\":" + (NOW_SECONDS + 3600) + "}");
+        assertThat(verifier.verify(token), is(IdTokenVerifier.Result.INVALID_AUDIENCE));
+    }
+
+    @Test
+    public void shouldRejectTokenWithoutExpiration() throws Exception {
+        String token = createToken("{\"aud\":\"" + AUDIENCE + "\"}");
+        assertThat(verifier.verify(token), is(IdTokenVerifier.Result.MALFORMED));
+    }
+
+    @Test
+    public void shouldRejectMalformedTokens() throws Exception {
+        assertThat(verifier.verify(null), is(IdTokenVerifier.Result.MALFORMED));
+        assertThat(verifier.verify(""), is(IdTokenVerifier.Result.MALFORMED));
+        assertThat(verifier.verify("someR.andOm.Token"), is(IdTokenVerifier.Result.MALFORMED));
+        assertThat(verifier.verify("header.pay*load.signature"), is(IdTokenVerifier.Result.MALFORMED));
+        assertThat(verifier.verify(createToken("[1, 2, 3]")), is(IdTokenVerifier.Result.MALFORMED));
+        assertThat(verifier.verify(createToken("{\"aud\":\"" + AUDIENCE + "\",\"exp\":")), is(IdTokenVerifier.Result.MALFORMED));
+    }
+
+    @Test
+    public void shouldDecodeBase64Url() throws Exception {
+        byte[] expected = new byte[]{(byte) 0xfb, (byte) 0xff, 0x00, 0x10, 0x7f};
+        String encoded = BaseEncoding.base64Url().omitPadding().encode(expected);
+        byte[] output = new byte[encoded.length() * 3 / 4];
+
+        int length = IdTokenVerifier.decodeBase64Url(encoded, 0, encoded.length(), output);
+
+        assertThat(length, is(expected.length));
+        for (int i = 0; i < expected.length; i++) {
+            assertThat(output[i], is(expected[i]));
+        }
+    }
+
+    static String createToken(String payload) {
+        BaseEncoding encoding = BaseEncoding.base64Url().omitPadding();
+        return encoding.encode("{\"alg\":\"RS256\"}".getBytes(Charsets.UTF_8))
+                + "." + encoding.encode(payload.getBytes(Charsets.UTF_8))
+                + ".c2lnbmF0dXJl";
+    }
+}
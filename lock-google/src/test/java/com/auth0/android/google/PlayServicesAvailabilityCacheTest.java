@@ -0,0 +1,122 @@
+package com.auth0.android.google;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.Uri;
+
+import com.google.android.gms.common.ConnectionResult;
+import com.google.android.gms.common.GoogleApiAvailability;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.internal.verification.VerificationModeFactory.times;
+
+public class PlayServicesAvailabilityCacheTest {
+
+    @Mock
+    private GoogleApiAvailability apiAvailability;
+    @Mock
+    private Context context;
+
+    private PlayServicesAvailabilityCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(context.getApplicationContext()).thenReturn(context);
+        cache = new PlayServicesAvailabilityCache(apiAvailability);
+    }
+
+    @Test
+    public void shouldCacheSuccessfulCheck() throws Exception {
+        when(apiAvailability.isGooglePlayServicesAvailable(context)).thenReturn(ConnectionResult.SUCCESS);
+
+        assertThat(cache.isGooglePlayServicesAvailable(context), is(ConnectionResult.SUCCESS));
+        assertThat(cache.isGooglePlayServicesAvailable(context), is(ConnectionResult.SUCCESS));
+
+        verify(apiAvailability, times(1)).isGooglePlayServicesAvailable(context);
+        assertThat(cache.getMissCount(), is(1L));
+        assertThat(cache.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void shouldNotCacheFailedCheck() throws Exception {
+        when(apiAvailability.isGooglePlayServicesAvailable(context)).thenReturn(ConnectionResult.SERVICE_MISSING);
+
+        assertThat(cache.isGooglePlayServicesAvailable(context), is(ConnectionResult.SERVICE_MISSING));
+        assertThat(cache.isGooglePlayServicesAvailable(context), is(ConnectionResult.SERVICE_MISSING));
+
+        verify(apiAvailability, times(2)).isGooglePlayServicesAvailable(context);
+        assertThat(cache.getMissCount(), is(2L));
+        assertThat(cache.getHitCount(), is(0L));
+    }
+
+    @Test
+    public void shouldRegisterPackageReceiverOnce() throws Exception {
+        cache.isGooglePlayServicesAvailable(context);
+        cache.isGooglePlayServicesAvailable(context);
+
+        verify(context, times(1)).registerReceiver(any(BroadcastReceiver.class), any(IntentFilter.class));
+    }
+
+    @Test
+    public void shouldInvalidateWhenGooglePlayServicesPackageChanges() throws Exception {
+        when(apiAvailability.isGooglePlayServicesAvailable(context)).thenReturn(ConnectionResult.SUCCESS);
+        cache.isGooglePlayServicesAvailable(context);
+
+        receiver().onReceive(context, packageIntent(GoogleApiAvailability.GOOGLE_PLAY_SERVICES_PACKAGE));
+        cache.isGooglePlayServicesAvailable(context);
+
+        verify(apiAvailability, times(2)).isGooglePlayServicesAvailable(context);
+        assertThat(cache.getMissCount(), is(2L));
+    }
+
+    @Test
+    public void shouldIgnoreOtherPackageChanges() throws Exception {
+        when(apiAvailability.isGooglePlayServicesAvailable(context)).thenReturn(ConnectionResult.SUCCESS);
+        cache.isGooglePlayServicesAvailable(context);
+
+        receiver().onReceive(context, packageIntent("com.example.app"));
+        cache.isGooglePlayServicesAvailable(context);
+
+        verify(apiAvailability, times(1)).isGooglePlayServicesAvailable(context);
+        assertThat(cache.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void shouldCheckAgainAfterInvalidate() throws Exception {
+        when(apiAvailability.isGooglePlayServicesAvailable(context)).thenReturn(ConnectionResult.SUCCESS);
+        cache.isGooglePlayServicesAvailable(context);
+        cache.invalidate();
+        cache.isGooglePlayServicesAvailable(context);
+
+        verify(apiAvailability, times(2)).isGooglePlayServicesAvailable(context);
+    }
+
+    private BroadcastReceiver receiver() {
+        ArgumentCaptor<BroadcastReceiver> captor = ArgumentCaptor.forClass(BroadcastReceiver.class);
+        verify(context).registerReceiver(captor.capture(), any(IntentFilter.class));
+        return captor.getValue();
+    }
+
+    private Intent packageIntent(String packageName) {
+        Uri data = mock(Uri.class);
+        when(data.getSchemeSpecificPart()).thenReturn(packageName);
+        Intent intent = mock(Intent.class);
+        when(intent.getAction()).thenReturn(Intent.ACTION_PACKAGE_REPLACED);
+        when(intent.getData()).thenReturn(data);
+        return intent;
+    }
+}
@@ -0,0 +1,94 @@
+package com.auth0.android.google;
+
+import com.auth0.android.Auth0Exception;
+import com.auth0.android.authentication.AuthenticationException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RetryPolicyTest {
+
+    @Mock
+    private Random random;
+    @Mock
+    private RetryPolicy.Listener listener;
+
+    private RetryPolicy policy;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(random.nextDouble()).thenReturn(1.0);
+        policy = new RetryPolicy(4, 1000, 3000, 10000, random);
+        policy.setListener(listener);
+    }
+
+    @Test
+    public void shouldRetryNetworkErrors() throws Exception {
+        final AuthenticationException error = new AuthenticationException("Request failed", new Auth0Exception("Failed to execute request", new IOException()));
+        assertThat(policy.isRetryable(error), is(true));
+    }
+
+    @Test
+    public void shouldRetryServerErrors() throws Exception {
+        assertThat(policy.isRetryable(new AuthenticationException("error", 503)), is(true));
+        assertThat(policy.isRetryable(new AuthenticationException("error", 429)), is(true));
+    }
+
+    @Test
+    public void shouldNotRetryClientErrors() throws Exception {
+        assertThat(policy.isRetryable(new AuthenticationException("error", 401)), is(false));
+        assertThat(policy.isRetryable(new AuthenticationException("invalid_grant", "Invalid token")), is(false));
+    }
+
+    @Test
+    public void shouldBackoffExponentiallyUpToTheMaximum() throws Exception {
+        final AuthenticationException error = new AuthenticationException("error", 500);
+        assertThat(policy.nextDelayMillis(1, 0, error), is(1000L));
+        assertThat(policy.nextDelayMillis(2, 0, error), is(2000L));
+        assertThat(policy.nextDelayMillis(3, 0, error), is(3000L));
+    }
+
+    @Test
+    public void shouldApplyJitterToTheBackoff() throws Exception {
+        when(random.nextDouble()).thenReturn(0.0);
+        assertThat(policy.nextDelayMillis(2, 0, new AuthenticationException("error", 500)), is(1000L));
+    }
+
+    @Test
+    public void shouldNotRetryAfterTheMaximumAttempts() throws Exception {
+        assertThat(policy.nextDelayMillis(4, 0, new AuthenticationException("error", 500)), is(-1L));
+    }
+
+    @Test
+    public void shouldNotRetryAfterTheDeadline() throws Exception {
+        final AuthenticationException error = new AuthenticationException("error", 500);
+        assertThat(policy.nextDelayMillis(1, 9000, error), is(1000L));
+        assertThat(policy.nextDelayMillis(1, 9001, error), is(-1L));
+    }
+
+    @Test
+    public void shouldNotRetryFatalErrors() throws Exception {
+        assertThat(policy.nextDelayMillis(1, 0, new AuthenticationException("error", 400)), is(-1L));
+    }
+
+    @Test
+    public void shouldNotifyListener() throws Exception {
+        final AuthenticationException error = new AuthenticationException("error", 500);
+        policy.onRetry(1, 1000, error);
+        policy.onExchangeFinished(2, true);
+
+        verify(listener).onRetry(1, 1000, error);
+        verify(listener).onExchangeFinished(2, true);
+    }
+}
@@ -0,0 +1,155 @@
+package com.auth0.android.google;
+
+import android.net.Uri;
+
+import com.auth0.android.authentication.AuthenticationAPIClient;
+import com.auth0.android.authentication.AuthenticationException;
+import com.auth0.android.callback.AuthenticationCallback;
+import com.auth0.android.callback.BaseCallback;
+import com.auth0.android.request.Request;
+import com.auth0.android.result.Credentials;
+import com.auth0.android.result.UserProfile;
+import com.google.android.gms.auth.api.signin.GoogleSignInAccount;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UserProfileFetcherTest {
+
+    private static final String CONNECTION = "google-oauth2";
+    private static final long TTL = TimeUnit.MINUTES.toMillis(5);
+
+    @Mock
+    private AuthenticationAPIClient client;
+    @Mock
+    private Request<UserProfile, AuthenticationException> request;
+    @Mock
+    private GoogleSignInAccount account;
+    @Mock
+    private AuthenticationCallback<UserProfile> callback;
+    @Mock
+    private UserProfile profile;
+
+    private FakeClock clock;
+    private UserProfileFetcher fetcher;
+    private Credentials credentials;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        clock = new FakeClock();
+        fetcher = new UserProfileFetcher(client, 2, TTL, clock);
+        credentials = new Credentials("idToken", "accessToken", "bearer", null, 86400L);
+        when(account.getId()).thenReturn("1234");
+        when(client.userInfo("accessToken")).thenReturn(request);
+        doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                //noinspection unchecked
+                ((BaseCallback<UserProfile, AuthenticationException>) invocation.getArguments()[0]).onSuccess(profile);
+                return null;
+            }
+        }).when(request).start(Matchers.<BaseCallback<UserProfile, AuthenticationException>>any());
+    }
+
+    @Test
+    public void shouldRequestTheProfileWithTheAccessToken() throws Exception {
+        fetcher.fetch(account, CONNECTION, credentials, callback);
+
+        verify(client).userInfo("accessToken");
+        verify(callback).onSuccess(profile);
+    }
+
+    @Test
+    public void shouldCacheTheProfileUntilTheTimeToLiveElapses() throws Exception {
+        fetcher.fetch(account, CONNECTION, credentials, callback);
+
+        assertThat(fetcher.getCached(account, CONNECTION), is(sameInstance(profile)));
+        assertThat(fetcher.getCached(account, "other-connection"), is(nullValue()));
+        clock.advance(TTL);
+        assertThat(fetcher.getCached(account, CONNECTION), is(nullValue()));
+        assertThat(fetcher.getHitCount(), is(1L));
+        assertThat(fetcher.getMissCount(), is(2L));
+    }
+
+    @Test
+    public void shouldNotCacheTheProfileOfAnAccountWithoutId() throws Exception {
+        when(account.getId()).thenReturn(null);
+        fetcher.fetch(account, CONNECTION, credentials, callback);
+
+        assertThat(fetcher.getCached(account, CONNECTION), is(nullValue()));
+    }
+
+    @Test
+    public void shouldFailWithoutAnAccessToken() throws Exception {
+        fetcher.fetch(account, CONNECTION, new Credentials("idToken", null, "bearer", null, 86400L), callback);
+
+        verify(client, never()).userInfo(anyString());
+        verify(callback).onFailure(any(AuthenticationException.class));
+    }
+
+    @Test
+    public void shouldBuildTheProfileFromTheGoogleAccount() throws Exception {
+        final Uri photoUrl = mock(Uri.class);
+        when(photoUrl.toString()).thenReturn("https://example.com/photo.png");
+        when(account.getDisplayName()).thenReturn("John Doe");
+        when(account.getGivenName()).thenReturn("John");
+        when(account.getFamilyName()).thenReturn("Doe");
+        when(account.getEmail()).thenReturn("john@example.com");
+        when(account.getPhotoUrl()).thenReturn(photoUrl);
+        fetcher.fromGoogleAccount(true);
+
+        fetcher.fetch(account, CONNECTION, credentials, callback);
+
+        verify(client, never()).userInfo(anyString());
+        final ArgumentCaptor<UserProfile> captor = ArgumentCaptor.forClass(UserProfile.class);
+        verify(callback).onSuccess(captor.capture());
+        final UserProfile built = captor.getValue();
+        assertThat(built.getId(), is("google-oauth2|1234"));
+        assertThat(built.getName(), is("John Doe"));
+        assertThat(built.getGivenName(), is("John"));
+        assertThat(built.getFamilyName(), is("Doe"));
+        assertThat(built.getEmail(), is("john@example.com"));
+        assertThat(built.isEmailVerified(), is(true));
+        assertThat(built.getPictureURL(), is("https://example.com/photo.png"));
+        assertThat(fetcher.getCached(account, CONNECTION), is(sameInstance(built)));
+    }
+
+    private static class FakeClock implements Clock {
+        private long now;
+
+        @Override
+        public long nanoTime() {
+            return now;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(now);
+        }
+
+        void advance(long millis) {
+            now += TimeUnit.MILLISECONDS.toNanos(millis);
+        }
+    }
+}